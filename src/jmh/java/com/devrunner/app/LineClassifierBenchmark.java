@@ -0,0 +1,127 @@
+package com.devrunner.app;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Lines per second through the old startOutputMonitor checks versus the
+ * precompiled {@link LineClassifier}. Run with {@code gradle jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineClassifierBenchmark {
+    // A mix of dev server, compiler and engine output, mostly uneventful
+    private static final String[] LINES = {
+        "  \u001B[32m\u001B[1mVITE\u001B[22m v5.0.12\u001B[39m  \u001B[2mready in \u001B[0m\u001B[1m312\u001B[22m\u001B[2m\u001B[0m ms\u001B[22m",
+        "  \u001B[32m➜\u001B[39m  \u001B[1mLocal\u001B[22m:   \u001B[36mhttp://localhost:\u001B[1m5173\u001B[22m/\u001B[39m",
+        "  \u001B[32m➜\u001B[39m  \u001B[1mNetwork\u001B[22m: \u001B[2muse \u001B[22m\u001B[1m--host\u001B[22m\u001B[2m to expose\u001B[22m",
+        "[ 42%] Building CXX object CMakeFiles/engine.dir/src/renderer/SpriteBatch.cpp.o",
+        "[100%] Linking CXX executable engine",
+        "Frame 18231: dt=16.66ms entities=412 drawCalls=37",
+        "SDL Error after display: Unknown touch device id 0",
+        "> Task :compileJava UP-TO-DATE",
+        "warning: [deprecation] getScaledInstance in Image has been deprecated",
+        "Exception in thread \"main\" java.lang.NullPointerException: Cannot invoke \"Sprite.draw()\"",
+        "    at com.example.game.World.render(World.java:88)",
+        "pygame 2.5.2 (SDL 2.28.3, Python 3.11.6)",
+        "hmr update /src/main.ts, /src/style.css",
+        "ModuleNotFoundError: No module named 'numpy'",
+        "BUILD SUCCESSFUL in 2s",
+        "Player moved to (128.0, 64.5) velocity=(3.2, 0.0)",
+    };
+
+    @Param({"typescript", "cpp"})
+    public String projectType;
+
+    private LineClassifier classifier;
+
+    @Setup
+    public void setup() {
+        classifier = LineClassifier.defaults(projectType).build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void legacy(Blackhole blackhole) {
+        for (String line : LINES) {
+            blackhole.consume(legacyClassify(projectType, line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void classifier(Blackhole blackhole) {
+        for (String line : LINES) {
+            int tags = classifier.classify(line);
+            if ((tags & LineClassifier.URL) != 0) {
+                blackhole.consume(LineClassifier.extractUrl(line));
+            }
+            blackhole.consume(tags);
+        }
+    }
+
+    // The per-line checks startOutputMonitor used before LineClassifier
+    static int legacyClassify(String projectType, String line) {
+        if (projectType.equals("cpp") && line.contains("SDL Error after display: Unknown touch device id")) {
+            return LineClassifier.SUPPRESSED;
+        }
+        int tags = 0;
+        if (projectType.equals("typescript")) {
+            String lowerLine = line.toLowerCase();
+            String extractedUrl = null;
+            if (lowerLine.contains("local:") ||
+                lowerLine.contains("localhost:") ||
+                lowerLine.contains("127.0.0.1:")) {
+                String cleanLine = line.replaceAll("\u001B\\[[;\\d]*m", "");
+                Pattern[] patterns = {
+                    Pattern.compile("Local:\\s*(https?://[^\\s]+)"),
+                    Pattern.compile("(https?://(?:localhost|127\\.0\\.0\\.1)[^\\s]+)"),
+                    Pattern.compile("➜\\s*Local:\\s*(https?://[^\\s]+)"),
+                    Pattern.compile("VITE\\s*.*?(https?://(?:localhost|127\\.0\\.0\\.1)[^\\s]+)")
+                };
+                for (Pattern pattern : patterns) {
+                    Matcher matcher = pattern.matcher(cleanLine);
+                    if (matcher.find()) {
+                        extractedUrl = matcher.group(1);
+                        break;
+                    }
+                }
+                if (extractedUrl != null) {
+                    extractedUrl.replaceAll("\u001B\\[[;\\d]*m", "").trim();
+                    tags |= LineClassifier.URL;
+                }
+            }
+        }
+        String lowerLine = line.toLowerCase();
+        if ((lowerLine.contains("error") &&
+             !lowerLine.contains("error after display") &&
+             !lowerLine.contains("sdl error after display")) ||
+            lowerLine.contains("exception") ||
+            lowerLine.contains("failed") ||
+            (lowerLine.contains("not found") && !lowerLine.contains("touch device")) ||
+            (lowerLine.contains("sdl") && lowerLine.contains("error") &&
+             !lowerLine.contains("touch device"))) {
+            tags |= LineClassifier.ERROR;
+        }
+        return tags;
+    }
+}
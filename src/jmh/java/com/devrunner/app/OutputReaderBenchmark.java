@@ -0,0 +1,86 @@
+package com.devrunner.app;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Lines per second read and classified by the old Reader/readLine loop
+ * versus {@link OutputReader}. Run with {@code gradle jmh -PjmhArgs="OutputReader -prof gc"}
+ * to compare allocation per line as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputReaderBenchmark {
+    private static final int LINES = 10_000;
+    private static final String[] SAMPLE = {
+        "[ 42%] Building CXX object CMakeFiles/engine.dir/src/renderer/SpriteBatch.cpp.o",
+        "Frame 18231: dt=16.66ms entities=412 drawCalls=37",
+        "SDL Error after display: Unknown touch device id 0",
+        "Player moved to (128.0, 64.5) velocity=(3.2, 0.0)",
+        "  \u001B[32m➜\u001B[39m  \u001B[1mLocal\u001B[22m:   \u001B[36mhttp://localhost:\u001B[1m5173\u001B[22m/\u001B[39m",
+        "> Task :compileJava UP-TO-DATE",
+    };
+
+    private byte[] output;
+    private LineClassifier classifier;
+
+    @Setup
+    public void setup() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < LINES; i++) {
+            bytes.writeBytes((SAMPLE[i % SAMPLE.length] + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        output = bytes.toByteArray();
+        classifier = LineClassifier.defaults("cpp").build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void readerReadLine(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(output), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                blackhole.consume(classifier.classify(line));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void outputReader(Blackhole blackhole) throws IOException {
+        OutputReader.read(new ByteArrayInputStream(output), line -> blackhole.consume(classifier.classify(line)));
+    }
+
+    // What startOutputMonitor does for a displayed line: classify, then build the String
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void outputReaderToString(Blackhole blackhole) throws IOException {
+        OutputReader.read(new ByteArrayInputStream(output), line -> {
+            blackhole.consume(classifier.classify(line));
+            blackhole.consume(line.toString());
+        });
+    }
+}
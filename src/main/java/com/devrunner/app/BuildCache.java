@@ -0,0 +1,395 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Content-addressed cache of build outputs, so an unchanged project can be
+ * launched without running its build script again.
+ *
+ * <pre>
+ * "cache": {
+ *     "cpp":  { "sources": ["src", "CMakeLists.txt"], "artifact": "build/Game", "command": ["./build/Game"] },
+ *     "java": { "sources": ["src"], "artifact": "build/game.jar", "command": ["java", "-jar", "{artifact}"] }
+ * }
+ * </pre>
+ *
+ * The sources are hashed into a Merkle digest: every file is a leaf and every
+ * directory hashes its sorted children, with subtrees hashed in parallel on
+ * a ForkJoin pool. File hashes are memoised by size and modification time,
+ * so a warm lookup only stats the tree. After a normal run the artifact is
+ * copied into the object store under its own hash and recorded against the
+ * source digest; a later launch with the same digest restores it if needed
+ * and runs the configured command directly.
+ */
+public final class BuildCache {
+    private static final int FORMAT = 1;
+    private static final int ENTRIES_PER_PROJECT = 8;
+    private static final long MAP_CHUNK = 64L * 1024 * 1024;
+
+    public static final class Spec {
+        private final List<String> sources;
+        private final String artifact;
+        private final List<String> command;
+
+        Spec(List<String> sources, String artifact, List<String> command) {
+            this.sources = sources;
+            this.artifact = artifact;
+            this.command = command;
+        }
+
+        // Returns null when the project type has no complete "cache" entry
+        public static Spec fromConfig(JSONObject config, String projectType) {
+            JSONObject section = config != null ? config.optJSONObject("cache") : null;
+            JSONObject spec = section != null ? section.optJSONObject(projectType) : null;
+            if (spec == null || !spec.has("artifact") || !spec.has("command")) {
+                return null;
+            }
+            String artifact = spec.getString("artifact");
+            List<String> command = new ArrayList<>();
+            JSONArray commandJson = spec.getJSONArray("command");
+            for (int i = 0; i < commandJson.length(); i++) {
+                command.add(commandJson.getString(i).replace("{artifact}", artifact));
+            }
+            List<String> sources = new ArrayList<>();
+            JSONArray sourcesJson = spec.optJSONArray("sources");
+            if (sourcesJson != null) {
+                for (int i = 0; i < sourcesJson.length(); i++) {
+                    sources.add(sourcesJson.getString(i));
+                }
+            } else {
+                sources.add("src");
+            }
+            return new Spec(sources, artifact, command);
+        }
+
+        public List<String> getCommand() {
+            return command;
+        }
+    }
+
+    /** Result of looking up a project's current sources. */
+    public static final class Lookup {
+        private final Path projectDir;
+        private final Spec spec;
+        private final String digest;
+        private final long newestSource;
+        private final boolean hit;
+
+        Lookup(Path projectDir, Spec spec, String digest, long newestSource, boolean hit) {
+            this.projectDir = projectDir;
+            this.spec = spec;
+            this.digest = digest;
+            this.newestSource = newestSource;
+            this.hit = hit;
+        }
+
+        public boolean isHit() {
+            return hit;
+        }
+
+        public Spec getSpec() {
+            return spec;
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+    }
+
+    private static final class FileHash {
+        final long size;
+        final long modified;
+        final String hash;
+
+        FileHash(long size, long modified, String hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+    }
+
+    private final Path dir;
+    private final Path objects;
+    private final Path indexFile;
+    private final Map<String, FileHash> fileHashes = new ConcurrentHashMap<>();
+    private JSONObject index;
+
+    public BuildCache(Path dir) {
+        this.dir = dir;
+        this.objects = dir.resolve("objects");
+        this.indexFile = dir.resolve("index.json");
+    }
+
+    /**
+     * Hashes the sources and, if a build of exactly these sources was
+     * recorded, makes sure the artifact is in place (restoring it from the
+     * object store when it was overwritten or deleted). An artifact newer than
+     * the recorded one was built by hand and is kept, which makes this a miss.
+     */
+    public synchronized Lookup lookup(Path projectDir, Spec spec) throws IOException {
+        loadIndex();
+        AtomicLong newestSource = new AtomicLong();
+        String digest = digest(projectDir, spec, newestSource);
+        JSONObject entry = entries(projectDir).optJSONObject(digest);
+        boolean hit = entry != null && restore(projectDir.resolve(spec.artifact), entry);
+        return new Lookup(projectDir, spec, digest, newestSource.get(), hit);
+    }
+
+    /**
+     * Records the artifact produced by a normal build of the looked-up
+     * sources; only call this after the build exited cleanly. Nothing is recorded unless the artifact is newer than every
+     * source and the sources still hash to the same digest.
+     */
+    public synchronized boolean record(Lookup lookup) throws IOException {
+        Path artifact = lookup.projectDir.resolve(lookup.spec.artifact);
+        if (!Files.isRegularFile(artifact)
+                || Files.getLastModifiedTime(artifact).toMillis() < lookup.newestSource
+                || !digest(lookup.projectDir, lookup.spec, new AtomicLong()).equals(lookup.digest)) {
+            return false;
+        }
+        loadIndex();
+        String hash = hashFile(artifact);
+        Files.createDirectories(objects);
+        Path object = objects.resolve(hash);
+        if (!Files.exists(object)) {
+            Path temp = Files.createTempFile(objects, hash, ".tmp");
+            Files.copy(artifact, temp, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            Files.move(temp, object, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(artifact, BasicFileAttributes.class);
+        JSONObject entry = new JSONObject();
+        entry.put("object", hash);
+        entry.put("size", attributes.size());
+        entry.put("modified", attributes.lastModifiedTime().toMillis());
+        entry.put("recorded", System.currentTimeMillis());
+        JSONObject entries = entries(lookup.projectDir);
+        entries.put(lookup.digest, entry);
+        // JSONObject keeps no insertion order, so evict by the recorded time
+        while (entries.length() > ENTRIES_PER_PROJECT) {
+            String oldest = null;
+            long oldestTime = Long.MAX_VALUE;
+            for (String key : entries.keySet()) {
+                long recorded = entries.getJSONObject(key).optLong("recorded");
+                if (recorded < oldestTime) {
+                    oldest = key;
+                    oldestTime = recorded;
+                }
+            }
+            entries.remove(oldest);
+        }
+        saveIndex();
+        removeUnreferencedObjects();
+        return true;
+    }
+
+    // True if the artifact on disk is (now) the recorded one
+    private boolean restore(Path artifact, JSONObject entry) throws IOException {
+        if (Files.isRegularFile(artifact)) {
+            BasicFileAttributes attributes = Files.readAttributes(artifact, BasicFileAttributes.class);
+            long modified = attributes.lastModifiedTime().toMillis();
+            if (attributes.size() == entry.getLong("size") && modified == entry.getLong("modified")) {
+                return true;
+            }
+            if (modified > entry.getLong("modified")) {
+                return false;
+            }
+        }
+        Path object = objects.resolve(entry.getString("object"));
+        if (!Files.isRegularFile(object)) {
+            return false;
+        }
+        Files.createDirectories(artifact.toAbsolutePath().getParent());
+        Files.copy(object, artifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+        entry.put("modified", Files.getLastModifiedTime(artifact).toMillis());
+        saveIndex();
+        return true;
+    }
+
+    private JSONObject entries(Path projectDir) {
+        JSONObject projects = index.getJSONObject("projects");
+        String key = projectDir.toAbsolutePath().normalize().toString();
+        JSONObject entries = projects.optJSONObject(key);
+        if (entries == null) {
+            entries = new JSONObject();
+            projects.put(key, entries);
+        }
+        return entries;
+    }
+
+    private String digest(Path projectDir, Spec spec, AtomicLong newestSource) throws IOException {
+        MessageDigest root = sha256();
+        for (String source : spec.sources) {
+            Path path = projectDir.resolve(source);
+            root.update((source + '\0').getBytes(StandardCharsets.UTF_8));
+            if (Files.exists(path)) {
+                try {
+                    root.update(ForkJoinPool.commonPool().invoke(new DigestTask(path, newestSource)));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+        return hex(root.digest());
+    }
+
+    private final class DigestTask extends RecursiveTask<byte[]> {
+        private final Path path;
+        private final AtomicLong newestSource;
+
+        DigestTask(Path path, AtomicLong newestSource) {
+            this.path = path;
+            this.newestSource = newestSource;
+        }
+
+        @Override
+        protected byte[] compute() {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class,
+                    LinkOption.NOFOLLOW_LINKS);
+                if (attributes.isSymbolicLink()) {
+                    return ("l" + Files.readSymbolicLink(path)).getBytes(StandardCharsets.UTF_8);
+                }
+                if (!attributes.isDirectory()) {
+                    long modified = attributes.lastModifiedTime().toMillis();
+                    newestSource.accumulateAndGet(modified, Math::max);
+                    return fileLeaf(path, attributes.size(), modified);
+                }
+
+                List<Path> children = new ArrayList<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                    stream.forEach(children::add);
+                }
+                children.sort(null);
+                List<DigestTask> tasks = new ArrayList<>();
+                for (Path child : children) {
+                    tasks.add(new DigestTask(child, newestSource));
+                }
+                invokeAll(tasks);
+
+                MessageDigest node = sha256();
+                for (int i = 0; i < children.size(); i++) {
+                    node.update((children.get(i).getFileName() + "\0").getBytes(StandardCharsets.UTF_8));
+                    node.update(tasks.get(i).join());
+                }
+                return node.digest();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private byte[] fileLeaf(Path file, long size, long modified) throws IOException {
+        String key = file.toAbsolutePath().toString();
+        FileHash known = fileHashes.get(key);
+        String hash;
+        if (known != null && known.size == size && known.modified == modified) {
+            hash = known.hash;
+        } else {
+            hash = hashFile(file);
+            fileHashes.put(key, new FileHash(size, modified, hash));
+        }
+        return ("f" + hash).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String hashFile(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_CHUNK) {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY,
+                    position, Math.min(MAP_CHUNK, size - position));
+                digest.update(chunk);
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private void loadIndex() {
+        if (index != null) {
+            return;
+        }
+        index = new JSONObject();
+        if (Files.exists(indexFile)) {
+            try {
+                JSONObject stored = new JSONObject(Files.readString(indexFile));
+                if (stored.optInt("format") == FORMAT) {
+                    index = stored;
+                }
+            } catch (IOException | RuntimeException e) {
+                // A damaged index only costs one rebuild per project
+                e.printStackTrace();
+            }
+        }
+        index.put("format", FORMAT);
+        if (index.optJSONObject("projects") == null) {
+            index.put("projects", new JSONObject());
+        }
+    }
+
+    private void saveIndex() throws IOException {
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "index", ".tmp");
+        Files.writeString(temp, index.toString(4));
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void removeUnreferencedObjects() throws IOException {
+        Set<String> referenced = new HashSet<>();
+        JSONObject projects = index.getJSONObject("projects");
+        for (String project : projects.keySet()) {
+            JSONObject entries = projects.getJSONObject(project);
+            for (String digest : entries.keySet()) {
+                referenced.add(entries.getJSONObject(digest).getString("object"));
+            }
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(objects)) {
+            for (Path object : stream) {
+                if (!referenced.contains(object.getFileName().toString())) {
+                    Files.deleteIfExists(object);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.devrunner.app;
+
+import java.util.List;
+
+/**
+ * The project types DevRunner ships with, registered in this jar's
+ * META-INF/services/com.devrunner.app.ProjectType in the order the window
+ * shows them.
+ */
+public final class BuiltinProjectTypes {
+    private BuiltinProjectTypes() {
+    }
+
+    public static final class Java implements ProjectType {
+        @Override
+        public String id() {
+            return "java";
+        }
+
+        @Override
+        public List<String> markers() {
+            return List.of("build.gradle", "build.gradle.kts", "pom.xml");
+        }
+
+        @Override
+        public boolean wslFallback() {
+            return true;
+        }
+
+        @Override
+        public List<Dependency> dependencies() {
+            return List.of(new Dependency("javac", "Java Development Kit"));
+        }
+    }
+
+    public static final class Cpp implements ProjectType {
+        @Override
+        public String id() {
+            return "cpp";
+        }
+
+        @Override
+        public String defaultPath() {
+            return "../starterCPP";
+        }
+
+        @Override
+        public List<String> markers() {
+            return List.of("CMakeLists.txt", "Makefile");
+        }
+
+        @Override
+        public boolean wslFallback() {
+            return true;
+        }
+
+        @Override
+        public boolean buildsNativeCode() {
+            return true;
+        }
+
+        @Override
+        public void addOutputRules(LineClassifier.Builder rules) {
+            rules.rule("sdl error after display: unknown touch device id", LineClassifier.SUPPRESSED);
+        }
+
+        @Override
+        public List<Dependency> dependencies() {
+            return List.of(
+                new Dependency("cmake", "CMake"),
+                new Dependency("g++", "MinGW"));
+        }
+    }
+
+    public static final class Python implements ProjectType {
+        @Override
+        public String id() {
+            return "python";
+        }
+
+        @Override
+        public List<String> markers() {
+            return List.of("requirements.txt", "pyproject.toml", "setup.py", "main.py");
+        }
+
+        @Override
+        public List<Dependency> dependencies() {
+            return List.of(new Dependency("python", "Python"));
+        }
+    }
+
+    public static final class TypeScript implements ProjectType {
+        @Override
+        public String id() {
+            return "typescript";
+        }
+
+        @Override
+        public String displayName() {
+            return "TypeScript";
+        }
+
+        @Override
+        public String defaultPath() {
+            return "../starterTS";
+        }
+
+        @Override
+        public List<String> markers() {
+            return List.of("package.json");
+        }
+
+        @Override
+        public Readiness readiness() {
+            return Readiness.URL;
+        }
+
+        @Override
+        public boolean installsNodeModules() {
+            return true;
+        }
+
+        @Override
+        public void addOutputRules(LineClassifier.Builder rules) {
+            rules.rule("local:", LineClassifier.URL)
+                .rule("localhost:", LineClassifier.URL)
+                .rule("127.0.0.1:", LineClassifier.URL);
+        }
+
+        @Override
+        public List<Dependency> dependencies() {
+            return List.of(new Dependency("npm", "Node.js"));
+        }
+    }
+}
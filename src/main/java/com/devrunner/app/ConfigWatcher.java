@@ -0,0 +1,88 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a single config file and runs a callback, on the watcher thread,
+ * once a burst of change events has settled. Editors often write a file in
+ * several steps, so events are debounced before the callback fires.
+ */
+public class ConfigWatcher implements AutoCloseable {
+    private static final long DEBOUNCE_MS = 250;
+
+    private final Path file;
+    private final Runnable onChange;
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigWatcher(Path file, Runnable onChange) {
+        this.file = file.toAbsolutePath().normalize();
+        this.onChange = onChange;
+    }
+
+    public void start() throws IOException {
+        Path dir = file.getParent();
+        watchService = FileSystems.getDefault().newWatchService();
+        dir.register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::run, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean touched = drain(key);
+                // Absorb the rest of the burst before reloading
+                WatchKey more;
+                while ((more = watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    touched |= drain(more);
+                }
+                if (touched && Files.exists(file)) {
+                    try {
+                        onChange.run();
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private boolean drain(WatchKey key) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (context instanceof Path && file.getFileName().equals(context)) {
+                touched = true;
+            }
+        }
+        key.reset();
+        return touched;
+    }
+
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
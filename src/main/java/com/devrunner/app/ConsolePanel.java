@@ -0,0 +1,302 @@
+package com.devrunner.app;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.BorderFactory;
+import javax.swing.JCheckBox;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollBar;
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+
+/**
+ * Tabbed live console with one tab per project. Each tab paints only the
+ * rows inside the viewport straight from the process's {@link LogStore},
+ * so the cost per repaint depends on the window height, not the log size.
+ * All methods must be called on the EDT.
+ */
+public class ConsolePanel extends JPanel {
+    private final JTabbedPane tabs = new JTabbedPane();
+    private final Map<String, ConsoleTab> consoleTabs = new LinkedHashMap<>();
+
+    public ConsolePanel(String... projects) {
+        super(new BorderLayout());
+        setBorder(BorderFactory.createTitledBorder("Console"));
+        for (String project : projects) {
+            tab(project);
+        }
+        add(tabs, BorderLayout.CENTER);
+    }
+
+    // Points the project's tab at the store of a newly started process
+    public void attach(String project, LogStore store) {
+        ConsoleTab tab = tab(project);
+        tab.view.setStore(store);
+        if (tab.pauseBox.isSelected()) {
+            tab.view.freeze();
+        }
+        tab.updateStatus();
+    }
+
+    public void onBatch(LogPipeline.Batch batch) {
+        ConsoleTab tab = consoleTabs.get(batch.source);
+        if (tab != null) {
+            tab.refresh(batch);
+        }
+    }
+
+    public void select(String project) {
+        ConsoleTab tab = consoleTabs.get(project);
+        if (tab != null) {
+            tabs.setSelectedComponent(tab);
+        }
+    }
+
+    private ConsoleTab tab(String project) {
+        return consoleTabs.computeIfAbsent(project, name -> {
+            ConsoleTab tab = new ConsoleTab();
+            tabs.addTab(name.substring(0, 1).toUpperCase() + name.substring(1), tab);
+            return tab;
+        });
+    }
+
+    private static final class ConsoleTab extends JPanel {
+        private final LogView view = new LogView();
+        private final JScrollPane scrollPane = new JScrollPane(view);
+        private final JCheckBox pauseBox = new JCheckBox("Pause");
+        private final JLabel statusLabel = new JLabel();
+
+        ConsoleTab() {
+            super(new BorderLayout());
+            scrollPane.getViewport().setScrollMode(JViewport.BLIT_SCROLL_MODE);
+
+            JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+            pauseBox.setToolTipText("Stop following new output");
+            pauseBox.addActionListener(e -> {
+                if (pauseBox.isSelected()) {
+                    view.freeze();
+                } else {
+                    view.thaw();
+                    refresh(null);
+                    scrollToBottom();
+                }
+            });
+            toolbar.add(pauseBox);
+            toolbar.add(statusLabel);
+
+            add(toolbar, BorderLayout.NORTH);
+            add(scrollPane, BorderLayout.CENTER);
+            updateStatus();
+        }
+
+        void refresh(LogPipeline.Batch batch) {
+            if (batch != null) {
+                view.noteBatch(batch);
+            }
+            if (pauseBox.isSelected()) {
+                updateStatus();
+                return;
+            }
+            JScrollBar bar = scrollPane.getVerticalScrollBar();
+            boolean atBottom = bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - view.rowHeight;
+            long shifted = view.sync();
+            // Lay out now so the scroll below sees the new height
+            scrollPane.validate();
+            if (atBottom) {
+                scrollToBottom();
+            } else if (shifted > 0) {
+                // Keep the same lines under the cursor as old ones are evicted
+                Rectangle visible = view.getVisibleRect();
+                visible.y = (int) Math.max(0, visible.y - shifted * view.rowHeight);
+                view.scrollRectToVisible(visible);
+            }
+            view.repaint();
+            updateStatus();
+        }
+
+        void scrollToBottom() {
+            int bottom = Math.max(0, view.getPreferredSize().height - 1);
+            view.scrollRectToVisible(new Rectangle(0, bottom, 1, 1));
+        }
+
+        void updateStatus() {
+            LogStore store = view.store;
+            if (store == null) {
+                statusLabel.setText("No output yet");
+                return;
+            }
+            String text = store.endSeq() + " lines, " + store.size() + " retained";
+            if (pauseBox.isSelected()) {
+                text += " (paused)";
+            }
+            statusLabel.setText(text);
+        }
+    }
+
+    /**
+     * Virtualized line view. It only holds the visible window bounds; line
+     * text is fetched from the store while painting.
+     */
+    private static final class LogView extends JComponent implements Scrollable {
+        private static final int PADDING = 4;
+        private static final int MAX_ROWS = Integer.MAX_VALUE / 64;
+
+        private LogStore store;
+        private long firstSeq;
+        private long endSeq;
+        // Rows firstSeq to endSeq as they were when the tail was paused; the store
+        // keeps evicting while paused, which would otherwise blank the rows being read
+        private String[] frozen;
+        private int longestLine;
+        private final int rowHeight;
+        private final int charWidth;
+        private final int ascent;
+
+        LogView() {
+            setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+            setOpaque(true);
+            setBackground(Color.WHITE);
+            FontMetrics metrics = getFontMetrics(getFont());
+            rowHeight = metrics.getHeight();
+            charWidth = metrics.charWidth('m');
+            ascent = metrics.getAscent();
+        }
+
+        void setStore(LogStore newStore) {
+            store = newStore;
+            frozen = null;
+            firstSeq = 0;
+            endSeq = 0;
+            longestLine = 0;
+            sync();
+        }
+
+        void noteBatch(LogPipeline.Batch batch) {
+            for (String line : batch.lines) {
+                if (line.length() > longestLine) {
+                    longestLine = line.length();
+                }
+            }
+        }
+
+        void freeze() {
+            frozen = new String[store != null ? rowCount() : 0];
+            for (int row = 0; row < frozen.length; row++) {
+                frozen[row] = store.get(firstSeq + row);
+            }
+        }
+
+        void thaw() {
+            frozen = null;
+        }
+
+        // Pulls the retained window from the store; returns rows evicted at the top
+        long sync() {
+            if (store == null) {
+                return 0;
+            }
+            long oldFirst = firstSeq;
+            firstSeq = store.firstSeq();
+            endSeq = store.endSeq();
+            revalidate();
+            return firstSeq - oldFirst;
+        }
+
+        private int rowCount() {
+            return (int) Math.min(MAX_ROWS, endSeq - firstSeq);
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            int width = PADDING * 2 + Math.max(longestLine, 80) * charWidth;
+            return new Dimension(width, PADDING * 2 + rowCount() * rowHeight);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Rectangle clip = g.getClipBounds();
+            g.setColor(getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+            if (store == null) {
+                return;
+            }
+            g.setColor(Color.DARK_GRAY);
+            int firstRow = Math.max(0, (clip.y - PADDING) / rowHeight);
+            int lastRow = Math.min(rowCount() - 1, (clip.y + clip.height - PADDING) / rowHeight);
+            for (int row = firstRow; row <= lastRow; row++) {
+                String line = frozen == null ? store.get(firstSeq + row)
+                    : row < frozen.length ? frozen[row] : null;
+                if (line != null) {
+                    g.drawString(stripAnsi(line), PADDING, PADDING + row * rowHeight + ascent);
+                }
+            }
+        }
+
+        private static String stripAnsi(String line) {
+            int escape = line.indexOf('\u001B');
+            if (escape < 0) {
+                return line;
+            }
+            StringBuilder out = new StringBuilder(line.length());
+            int i = 0;
+            while (i < line.length()) {
+                char c = line.charAt(i);
+                if (c == '\u001B' && i + 1 < line.length() && line.charAt(i + 1) == '[') {
+                    i += 2;
+                    while (i < line.length() && (line.charAt(i) < '@' || line.charAt(i) > '~')) {
+                        i++;
+                    }
+                    i++;
+                } else {
+                    out.append(c);
+                    i++;
+                }
+            }
+            return out.toString();
+        }
+
+        @Override
+        public Dimension getPreferredScrollableViewportSize() {
+            return new Dimension(600, 12 * rowHeight);
+        }
+
+        @Override
+        public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return orientation == SwingConstants.VERTICAL ? rowHeight : charWidth * 4;
+        }
+
+        @Override
+        public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return orientation == SwingConstants.VERTICAL
+                ? Math.max(rowHeight, visibleRect.height - rowHeight)
+                : visibleRect.width / 2;
+        }
+
+        // Stretch to fill the viewport when the content is smaller than it
+        @Override
+        public boolean getScrollableTracksViewportWidth() {
+            return getParent() instanceof JViewport
+                && getParent().getWidth() > getPreferredSize().width;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportHeight() {
+            return getParent() instanceof JViewport
+                && getParent().getHeight() > getPreferredSize().height;
+        }
+    }
+}
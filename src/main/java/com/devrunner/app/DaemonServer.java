@@ -0,0 +1,314 @@
+package com.devrunner.app;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-lived runner that takes commands over a Unix domain socket, so
+ * editors, scripts and shells can drive one set of processes without a
+ * window. Each connection sends one command line, reads a plain-text reply
+ * and is closed; replies to commands that failed start with "error:".
+ *
+ * <pre>
+ * run|stop|restart &lt;project&gt;...   status   watch &lt;project&gt; on|off
+ * group &lt;name&gt;   logs &lt;project&gt; [lines]   search [options] &lt;words&gt;...
+ * timings   shutdown
+ * </pre>
+ */
+public class DaemonServer implements RunnerCore.Frontend {
+    public static final Path SOCKET = Paths.get("devrunner.sock");
+    private static final int DEFAULT_LOG_LINES = 100;
+
+    private final RunnerCore core = new RunnerCore(this);
+    private final ExecutorService handlers = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "daemon-client");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public Executor logExecutor() {
+        return Runnable::run;
+    }
+
+    @Override
+    public boolean echoesOutput() {
+        return true;
+    }
+
+    @Override
+    public boolean confirm(String message, String title) {
+        System.err.println(title + ": " + message + "\n(answering no; the daemon cannot ask)");
+        return false;
+    }
+
+    @Override
+    public void showError(String title, String message) {
+        System.err.println(title + ": " + message);
+    }
+
+    @Override
+    public void showError(String title, String header, LogStore logStore) {
+        // The output itself has already been echoed; clients can fetch it with "logs"
+        System.err.println(header.isEmpty() ? title : title + ": " + header.trim());
+    }
+
+    // Returns the process exit status
+    public static int serve() {
+        return new DaemonServer().run();
+    }
+
+    private int run() {
+        if (Files.exists(SOCKET)) {
+            try (SocketChannel ignored = SocketChannel.open(UnixDomainSocketAddress.of(SOCKET))) {
+                System.err.println("A daemon is already listening on " + SOCKET.toAbsolutePath());
+                return 1;
+            } catch (IOException e) {
+                // Left behind by a daemon that did not shut down cleanly
+                try {
+                    Files.delete(SOCKET);
+                } catch (IOException deleteFailed) {
+                    System.err.println("Could not remove stale socket " + SOCKET + ": " + deleteFailed.getMessage());
+                    return 1;
+                }
+            }
+        }
+
+        core.start();
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(SOCKET));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                core.shutdown();
+                try {
+                    Files.deleteIfExists(SOCKET);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }, "daemon-shutdown"));
+            System.out.println("DevRunner daemon listening on " + SOCKET.toAbsolutePath());
+            while (true) {
+                SocketChannel client = server.accept();
+                handlers.execute(() -> handle(client));
+            }
+        } catch (IOException e) {
+            System.err.println("Daemon socket failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        try (SocketChannel channel = client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                 Channels.newInputStream(channel), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            String line = in.readLine();
+            if (line == null || line.isBlank()) {
+                return;
+            }
+            List<String> words = Arrays.asList(line.trim().split("\\s+"));
+            try {
+                execute(words.get(0), words.subList(1, words.size()), out);
+            } catch (IllegalArgumentException e) {
+                out.println("error: " + e.getMessage());
+            }
+            out.flush();
+            if (words.get(0).equals("shutdown")) {
+                // Reply first; the shutdown hook stops every project and removes the socket
+                System.exit(0);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void execute(String command, List<String> args, PrintWriter out) {
+        switch (command) {
+            case "run":
+            case "restart":
+                // A launch replaces the project's previous run, so both mean the same
+                launch(projects(args), out);
+                break;
+            case "stop":
+                for (String project : projects(args)) {
+                    core.stopProject(project);
+                    out.println(project + " stopped");
+                }
+                break;
+            case "status":
+                for (String project : statusNames()) {
+                    ProcessSupervisor.ManagedProcess managed = core.getSupervisor().get(project);
+                    out.println(String.format("%-12s %-26s %-12s %s", project, core.getStatus(project),
+                        managed != null ? "pid " + managed.getHandle().pid() : "",
+                        core.isWatching(project) ? "watching" : ""));
+                }
+                break;
+            case "watch":
+                if (args.size() != 2 || !(args.get(1).equals("on") || args.get(1).equals("off"))) {
+                    throw new IllegalArgumentException("usage: watch <project> on|off");
+                }
+                String project = projects(args.subList(0, 1)).get(0);
+                boolean watching = args.get(1).equals("on");
+                if (!core.setWatching(project, watching)) {
+                    throw new IllegalArgumentException("could not watch " + project);
+                }
+                out.println(project + (watching ? " watched" : " no longer watched"));
+                break;
+            case "group":
+                launchGroup(args, out);
+                break;
+            case "logs":
+                logs(args, out);
+                break;
+            case "search":
+                search(args, out);
+                break;
+            case "timings":
+                out.println(core.getTimings().toJson().toString(2));
+                break;
+            case "shutdown":
+                out.println("shutting down");
+                break;
+            default:
+                throw new IllegalArgumentException("unknown command '" + command
+                    + "'; expected run, stop, restart, status, watch, group, logs, search, timings or shutdown");
+        }
+    }
+
+    // Every project type, each followed by its further instances
+    private List<String> statusNames() {
+        List<String> names = new ArrayList<>();
+        for (String projectType : RunnerCore.PROJECTS) {
+            names.add(projectType);
+            for (String instance : core.getInstances()) {
+                if (RunnerCore.instanceNumber(instance) > 1 && RunnerCore.projectTypeOf(instance).equals(projectType)) {
+                    names.add(instance);
+                }
+            }
+        }
+        return names;
+    }
+
+    private List<String> projects(List<String> args) {
+        if (args.isEmpty()) {
+            throw new IllegalArgumentException("no project given; projects: " + String.join(", ", RunnerCore.PROJECTS));
+        }
+        for (String project : args) {
+            if (!core.isProject(project)) {
+                throw new IllegalArgumentException("unknown project '" + project + "'");
+            }
+        }
+        return args;
+    }
+
+    // Replies once every project has started or failed to
+    private void launch(List<String> projects, PrintWriter out) {
+        List<LaunchEngine.Launch> launches = new ArrayList<>();
+        projects.forEach(project -> launches.add(core.launchProject(project)));
+        boolean failed = false;
+        for (LaunchEngine.Launch launch : launches) {
+            try {
+                launch.started().join();
+                out.println(launch.getProject() + " started");
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                out.println(launch.getProject() + " failed: " + cause.getMessage());
+                failed = true;
+            }
+        }
+        if (failed) {
+            out.println("error: not every project started");
+        }
+    }
+
+    private void launchGroup(List<String> args, PrintWriter out) {
+        if (args.size() != 1) {
+            throw new IllegalArgumentException("usage: group <name>");
+        }
+        LaunchGroup group = core.loadGroups().get(args.get(0));
+        if (group == null) {
+            throw new IllegalArgumentException("no launch group named '" + args.get(0) + "'");
+        }
+        List<LaunchGroup.Result> results = core.launchGroup(group, result -> { }).join();
+        results.forEach(out::println);
+        if (results.stream().anyMatch(result -> !result.isReady())) {
+            out.println("error: not every project became ready");
+        }
+    }
+
+    private void logs(List<String> args, PrintWriter out) {
+        if (args.isEmpty() || args.size() > 2) {
+            throw new IllegalArgumentException("usage: logs <project> [lines]");
+        }
+        String project = projects(args.subList(0, 1)).get(0);
+        int lines = DEFAULT_LOG_LINES;
+        if (args.size() == 2) {
+            try {
+                lines = Integer.parseInt(args.get(1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("not a line count: " + args.get(1));
+            }
+        }
+        LogStore logStore = core.getLogStore(project);
+        if (logStore == null) {
+            throw new IllegalArgumentException(project + " has no output yet");
+        }
+        StringBuilder tail = new StringBuilder();
+        logStore.appendTail(tail, lines);
+        out.print(tail);
+    }
+
+    private void search(List<String> args, PrintWriter out) {
+        try {
+            SessionSearch.Result result = SessionSearch.search(args, SessionLog.Settings.fromConfig(core.getConfig()));
+            result.matches.forEach(out::println);
+            out.println(result.summary());
+        } catch (IOException e) {
+            out.println("error: search failed: " + e.getMessage());
+        }
+    }
+
+    /** Client side of the protocol: sends one command and prints the reply. */
+    public static int send(String[] args) {
+        if (args.length == 0) {
+            Main.usage();
+            return 2;
+        }
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(SOCKET))) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+            writer.write(String.join(" ", args) + "\n");
+            writer.flush();
+            boolean error = false;
+            BufferedReader in = new BufferedReader(new InputStreamReader(
+                Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                System.out.println(line);
+                error |= line.startsWith("error:");
+            }
+            return error ? 1 : 0;
+        } catch (IOException e) {
+            System.err.println("No daemon listening on " + SOCKET.toAbsolutePath() + " (" + e.getMessage() + ")");
+            return 1;
+        }
+    }
+}
@@ -6,99 +6,162 @@ import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.Image;
+import java.awt.HeadlessException;
 import java.awt.Insets;
-import java.io.BufferedReader;
-import java.io.File;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import javax.swing.BorderFactory;
-import javax.swing.ImageIcon;
+import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
 import javax.swing.JTextArea;
-import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 import org.json.JSONObject;
 
-public class DevRunner extends JFrame {
-    private Map<String, String> projectPaths;
-    private Map<String, JTextField> pathFields;
-    private JButton typescriptBrowserButton;
-    private Process tsProcess;
-    private String tsUrl;
-   
-    public DevRunner() {
+/**
+ * The Swing window: path fields, launch buttons, console, resource
+ * sparklines and timings. Launching, logging and configuration live in
+ * {@link RunnerCore}; this class only shows what the core reports.
+ */
+public class DevRunner extends JFrame implements RunnerCore.Frontend {
+    private static final int MAX_INSTANCES = 16;
+    // Editable; the drop-down lists the discovered projects of each type
+    private Map<String, JComboBox<String>> pathFields;
+    // "Open in Browser" buttons of the projects that are ready once they print a URL
+    private final Map<String, JButton> browserButtons = new HashMap<>();
+    private Map<String, JButton> stopButtons;
+    private Map<String, JLabel> statusLabels;
+    private final Map<String, String> urls = new HashMap<>();
+    // How many instances the Run button starts, per project type
+    private final Map<String, JSpinner> instanceCounts = new HashMap<>();
+    // Rows for instances after the first, which share their type's path and settings
+    private final Map<String, JPanel> instanceRows = new HashMap<>();
+    private final Map<String, JLabel> urlLabels = new HashMap<>();
+    private JPanel instancePanel;
+    private final RunnerCore core = new RunnerCore(this);
+    private JComboBox<String> groupBox;
+    private JLabel groupStatusLabel;
+    private ConsolePanel consolePanel;
+    private MetricsPanel metricsPanel;
+    private TimingsDialog timingsDialog;
+   
+    public DevRunner(CompletableFuture<JSONObject> pendingConfig) {
         super("Game Engine Development Runner");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(1000, 600);
+        setSize(1000, 800);
        
         // Center the window
         setLocationRelativeTo(null);
        
         // Initialize maps
-        projectPaths = new HashMap<>();
         pathFields = new HashMap<>();
+        stopButtons = new HashMap<>();
+        statusLabels = new HashMap<>();
+       
+        // Tear down every launched process tree when the window closes
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                core.shutdown();
+            }
+        });
        
-        // Load configuration
-        loadConfig();
+        // Load configuration and pick up later edits to its rules
+        core.start(pendingConfig);
        
         // Set up the GUI
         setupUI();
        
+        if (Boolean.getBoolean("devrunner.exitAfterStartup")) {
+            exitOnceShown();
+        }
+       
         // Make the window visible
         setVisible(true);
     }
    
-    private void loadConfig() {
-        // Default paths relative to jarDevRunner directory
-        projectPaths.put("java", "../Java");
-        projectPaths.put("cpp", "../starterCPP");
-        projectPaths.put("python", "../Python");
-        projectPaths.put("typescript", "../starterTS");
-       
-        // Try to load from config file
-        Path configPath = Paths.get("project_paths.json");
-        if (Files.exists(configPath)) {
-            try {
-                String content = Files.readString(configPath);
-                JSONObject json = new JSONObject(content);
-                for (String key : json.keySet()) {
-                    projectPaths.put(key, json.getString(key));
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-                JOptionPane.showMessageDialog(this,
-                    "Error loading config: " + e.getMessage(),
-                    "Configuration Error",
-                    JOptionPane.ERROR_MESSAGE);
+    // Startup probe for the CDS training run and the startup benchmark
+    private void exitOnceShown() {
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // Queued behind the first paint
+                SwingUtilities.invokeLater(() -> {
+                    long millis = ProcessHandle.current().info().startInstant()
+                        .map(start -> Duration.between(start, Instant.now()).toMillis())
+                        .orElse(-1L);
+                    System.out.println("Startup: " + millis + " ms");
+                    core.shutdown();
+                    System.exit(0);
+                });
             }
-        }
+        });
+    }
+   
+    @Override
+    public Executor logExecutor() {
+        return SwingUtilities::invokeLater;
+    }
+   
+    @Override
+    public void onProcessStateChanged(String project, boolean running) {
+        SwingUtilities.invokeLater(() -> {
+            JButton stopButton = stopButtons.get(project);
+            if (stopButton != null) {
+                stopButton.setEnabled(running || core.isLaunching(project) || core.isRestartPending(project));
+            }
+            if (!running && !core.isLaunching(project)) {
+                // "Stopped", or how the run ended and whether it will be restarted
+                setStatus(statusLabels.get(project), core.getStatus(project));
+            }
+        });
+    }
+   
+    @Override
+    public void onMetricsSampled(ProcessMetrics metrics) {
+        SwingUtilities.invokeLater(() -> {
+            // Sampling starts with the core, before the panel exists
+            if (metricsPanel != null) {
+                metricsPanel.refresh();
+            }
+        });
+    }
+   
+    @Override
+    public void onConfigReloaded(JSONObject config) {
+        SwingUtilities.invokeLater(this::refreshGroups);
     }
    
     private void saveConfig() {
-        JSONObject json = new JSONObject();
-        for (Map.Entry<String, JTextField> entry : pathFields.entrySet()) {
-            json.put(entry.getKey(), entry.getValue().getText());
-            projectPaths.put(entry.getKey(), entry.getValue().getText());
+        Map<String, String> paths = new HashMap<>();
+        for (Map.Entry<String, JComboBox<String>> entry : pathFields.entrySet()) {
+            paths.put(entry.getKey(), pathText(entry.getValue()));
         }
        
         try {
-            Files.writeString(Paths.get("project_paths.json"), json.toString(4));
+            core.saveConfig(paths);
             JOptionPane.showMessageDialog(this,
                 "Configuration saved successfully!",
                 "Success",
@@ -157,6 +220,20 @@ public class DevRunner extends JFrame {
         gbc.gridx = 1;
         mainPanel.add(rightPanel, gbc);
        
+        // Resource sparklines for every launched process tree
+        gbc.gridx = 0;
+        gbc.gridy = 3;
+        gbc.gridwidth = 2;
+        gbc.weighty = 0;
+        metricsPanel = new MetricsPanel(core.getMetrics(), RunnerCore.PROJECTS.toArray(new String[0]));
+        mainPanel.add(metricsPanel, gbc);
+       
+        // Live console spanning both columns below the panels
+        gbc.gridy = 4;
+        gbc.weighty = 3.0;
+        consolePanel = new ConsolePanel(RunnerCore.PROJECTS.toArray(new String[0]));
+        mainPanel.add(consolePanel, gbc);
+       
         // Add main panel to frame
         add(mainPanel);
     }
@@ -175,31 +252,28 @@ public class DevRunner extends JFrame {
         gbc.fill = GridBagConstraints.NONE;
        
         int row = 0;
-        for (String project : new String[]{"java", "cpp", "python", "typescript"}) {
+        for (String project : RunnerCore.PROJECTS) {
             // Icon
             gbc.gridy = row;
             gbc.gridx = 0;
-            ImageIcon icon = loadIcon("/icons/" + project + ".png");
-            if (icon != null) {
-                JLabel iconLabel = new JLabel(icon);
-                // Set a fixed size for icon container
-                iconLabel.setPreferredSize(new Dimension(30, 24));
-                panel.add(iconLabel, gbc);
-            }
+            // Fixed-size icon container; the icon itself is decoded in the background
+            panel.add(IconLoader.label(project), gbc);
            
             // Label
             gbc.gridx = 1;
             gbc.anchor = GridBagConstraints.WEST;
             gbc.insets = new Insets(5, 10, 5, 5); // Add more left padding
-            panel.add(new JLabel(project.substring(0, 1).toUpperCase() +
-                               project.substring(1) + " Project Path:"), gbc);
+            panel.add(new JLabel(ProjectTypes.plan(project).getDisplayName() + " Project Path:"), gbc);
            
             // Text field
             gbc.gridx = 2;
             gbc.fill = GridBagConstraints.HORIZONTAL;
             gbc.weightx = 1.0;
-            JTextField field = new JTextField(projectPaths.get(project));
+            JComboBox<String> field = new JComboBox<>();
+            field.setEditable(true);
+            field.setPrototypeDisplayValue("../starterTS");
             pathFields.put(project, field);
+            fillPathChoices(project, core.getDiscoveredProjects());
             panel.add(field, gbc);
            
             row++;
@@ -237,37 +311,36 @@ public class DevRunner extends JFrame {
        
         // Add project buttons with aligned icons
         int row = 0;
-        for (String project : new String[]{"java", "cpp", "python"}) {
+        for (String project : RunnerCore.PROJECTS) {
             addAlignedProjectButton(panel, gbc, row++, project,
-                "Run " + project.substring(0, 1).toUpperCase() +
-                project.substring(1) + " Project");
+                "Run " + ProjectTypes.plan(project).getDisplayName() + " Project");
         }
        
-        // TypeScript section with two buttons
+        // Launch group row: start several projects at once
         gbc.gridy = row;
-        gbc.gridx = 0;
-        ImageIcon tsIcon = loadIcon("/icons/typescript.png");
-        if (tsIcon != null) {
-            JLabel iconLabel = new JLabel(tsIcon);
-            iconLabel.setPreferredSize(new Dimension(30, 24));
-            panel.add(iconLabel, gbc);
-        }
-       
-        // TypeScript buttons panel
-        JPanel tsButtonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
-        JButton tsButton = new JButton("Run TypeScript Project");
-        tsButton.addActionListener(e -> runProject("typescript"));
-        tsButtonPanel.add(tsButton);
-       
-        typescriptBrowserButton = new JButton("Open in Browser");
-        typescriptBrowserButton.setEnabled(false);
-        typescriptBrowserButton.addActionListener(e -> openTypeScriptInBrowser());
-        tsButtonPanel.add(typescriptBrowserButton);
-       
         gbc.gridx = 1;
-        gbc.fill = GridBagConstraints.HORIZONTAL;
-        gbc.weightx = 1.0;
-        panel.add(tsButtonPanel, gbc);
+        JPanel groupPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        groupPanel.add(new JLabel("Launch group:"));
+        groupBox = new JComboBox<>();
+        groupPanel.add(groupBox);
+        JButton groupButton = new JButton("Launch Group");
+        groupButton.addActionListener(e -> launchGroup((String) groupBox.getSelectedItem()));
+        groupPanel.add(groupButton);
+        JButton timingsButton = new JButton("Timings");
+        timingsButton.addActionListener(e -> showTimings());
+        groupPanel.add(timingsButton);
+        panel.add(groupPanel, gbc);
+       
+        gbc.gridy = ++row;
+        groupStatusLabel = new JLabel(" ");
+        panel.add(groupStatusLabel, gbc);
+        refreshGroups();
+       
+        // Further instances appear here as they are launched
+        gbc.gridy = ++row;
+        instancePanel = new JPanel();
+        instancePanel.setLayout(new BoxLayout(instancePanel, BoxLayout.Y_AXIS));
+        panel.add(instancePanel, gbc);
        
         return panel;
     }
@@ -280,522 +353,323 @@ public class DevRunner extends JFrame {
         gbc.weightx = 0;
        
         // Add icon with fixed size
-        ImageIcon icon = loadIcon("/icons/" + project + ".png");
-        if (icon != null) {
-            JLabel iconLabel = new JLabel(icon);
-            iconLabel.setPreferredSize(new Dimension(30, 24));
-            panel.add(iconLabel, gbc);
-        }
+        panel.add(IconLoader.label(project), gbc);
        
-        // Add button
+        // Add run and stop buttons
         gbc.gridx = 1;
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.weightx = 1.0;
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
         JButton button = new JButton(buttonText);
-        button.addActionListener(e -> runProject(project));
-        panel.add(button, gbc);
+        button.addActionListener(e -> launchProject(project));
+        buttonPanel.add(button);
+        JSpinner countSpinner = new JSpinner(new SpinnerNumberModel(1, 1, MAX_INSTANCES, 1));
+        countSpinner.setToolTipText("Instances to run side by side, each with its own ports");
+        instanceCounts.put(project, countSpinner);
+        buttonPanel.add(countSpinner);
+        if (ProjectTypes.plan(project).isReadyOnUrl()) {
+            JButton browserButton = new JButton("Open in Browser");
+            browserButton.setEnabled(false);
+            browserButton.addActionListener(e -> openInBrowser(project));
+            browserButtons.put(project, browserButton);
+            buttonPanel.add(browserButton);
+        }
+        buttonPanel.add(createStopButton(project));
+        buttonPanel.add(createWatchBox(project));
+        buttonPanel.add(createStatusLabel(project));
+        panel.add(buttonPanel, gbc);
     }
    
-    private ImageIcon loadIcon(String path) {
-        try {
-            InputStream is = getClass().getResourceAsStream(path);
-            if (is != null) {
-                byte[] imageBytes = is.readAllBytes();
-                return new ImageIcon(new ImageIcon(imageBytes)
-                    .getImage()
-                    .getScaledInstance(24, 24, Image.SCALE_SMOOTH));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-   
-    private void runTypeScriptProject(Path projectPath, Map<String, String> env) throws IOException, InterruptedException {
-        // First verify npm is available and get its path
-        ProcessBuilder npmCheck = new ProcessBuilder("which", "npm");
-        npmCheck.environment().putAll(env);
-        Process npmProcess = npmCheck.start();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(npmProcess.getInputStream()))) {
-            String npmPath = reader.readLine();
-            if (npmPath == null || npmPath.isEmpty()) {
-                throw new IOException("npm not found. Please install Node.js from https://nodejs.org/");
-            }
-           
-            // Now we know npm exists, let's use it
-            if (!Files.exists(projectPath.resolve("node_modules"))) {
-                ProcessBuilder npmInstall = new ProcessBuilder(npmPath, "install");
-                npmInstall.directory(projectPath.toFile());
-                npmInstall.redirectErrorStream(true);
-                npmInstall.environment().putAll(env);
-                Process installProcess = npmInstall.start();
-                startOutputMonitor(installProcess, "npm install");
-                installProcess.waitFor(5, TimeUnit.MINUTES);
-            }
-           
-            // Run the dev server
-            ProcessBuilder pb = new ProcessBuilder(npmPath, "run", "dev");
-            pb.directory(projectPath.toFile());
-            pb.redirectErrorStream(true);
-            pb.environment().putAll(env);
-           
-            if (tsProcess != null) {
-                tsProcess.destroy();
-            }
-           
-            typescriptBrowserButton.setEnabled(false);
-            tsUrl = null;
-           
-            Process process = pb.start();
-            tsProcess = process;
-            startOutputMonitor(process, "typescript");
-        }
+    private JLabel createStatusLabel(String project) {
+        JLabel statusLabel = new JLabel(" ");
+        statusLabel.setFont(new Font("Dialog", Font.ITALIC, 12));
+        statusLabels.put(project, statusLabel);
+        return statusLabel;
     }
-
-    private void runScript(ProcessBuilder pb, String scriptPath, Map<String, String> env) throws IOException, InterruptedException {
-        boolean isWindows = System.getProperty("os.name").toLowerCase().contains("windows");
-       
-        if (!isWindows) {
-            // Make script executable on Unix systems
-            ProcessBuilder chmodPb = new ProcessBuilder("chmod", "+x", scriptPath);
-            chmodPb.directory(new File(scriptPath).getParentFile());
-            chmodPb.environment().putAll(env);
-            Process chmodProcess = chmodPb.start();
-            chmodProcess.waitFor(5, TimeUnit.SECONDS);
-        } else {
-            // On Windows, ensure PowerShell scripts can run
-            // This is usually handled by setting ExecutionPolicy when invoking PowerShell
-            if (scriptPath.toLowerCase().endsWith(".ps1")) {
-                // Check if script exists
-                if (!Files.exists(Paths.get(scriptPath))) {
-                    throw new IOException("PowerShell script not found: " + scriptPath);
-                }
+   
+    private JCheckBox createWatchBox(String project) {
+        JCheckBox watchBox = new JCheckBox("Watch");
+        watchBox.setToolTipText("Restart the project whenever its sources change");
+        watchBox.addActionListener(e -> {
+            if (!setWatching(project, watchBox.isSelected())) {
+                watchBox.setSelected(false);
             }
-        }
+        });
+        return watchBox;
     }
-
-    private boolean installJDK() throws IOException, InterruptedException {
-        String wingetCommand = "winget install -e --id Oracle.JDK.17";
-        ProcessBuilder pb = new ProcessBuilder("powershell", "-Command", wingetCommand);
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-        startOutputMonitor(process, "JDK Installation");
-        return process.waitFor() == 0;
+   
+    private boolean setWatching(String project, boolean watching) {
+        return core.setWatching(project, watching);
     }
-
-    private boolean installCMake() throws IOException, InterruptedException {
-        String wingetCommand = "winget install -e --id Kitware.CMake";
-        ProcessBuilder pb = new ProcessBuilder("powershell", "-Command", wingetCommand);
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-        startOutputMonitor(process, "CMake Installation");
-        return process.waitFor() == 0;
+   
+    @Override
+    public void onReady(String project, long millis, String how) {
+        SwingUtilities.invokeLater(() -> setStatus(statusLabels.get(project), "Ready in " + millis + " ms"));
     }
-
-    private boolean installPython() throws IOException, InterruptedException {
-        String wingetCommand = "winget install -e --id Python.Python.3.9";
-        ProcessBuilder pb = new ProcessBuilder("powershell", "-Command", wingetCommand);
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-        startOutputMonitor(process, "Python Installation");
-        return process.waitFor() == 0;
+   
+    @Override
+    public void onRestartMeasured(String project, long millis, long averageMillis, long count) {
+        String text = "Edit to running: " + millis + " ms (avg " + averageMillis + " ms over " + count + ")";
+        SwingUtilities.invokeLater(() -> setStatus(statusLabels.get(project), text));
     }
-
-    private boolean installNodejs() throws IOException, InterruptedException {
-        String wingetCommand = "winget install -e --id OpenJS.NodeJS.LTS";
-        ProcessBuilder pb = new ProcessBuilder("powershell", "-Command", wingetCommand);
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-        startOutputMonitor(process, "Node.js Installation");
-        return process.waitFor() == 0;
+   
+    @Override
+    public void onBuildMeasured(String project, long millis, String summary) {
+        SwingUtilities.invokeLater(() -> setStatus(statusLabels.get(project), "Running, " + summary));
     }
-
-    private boolean installMinGW() throws IOException, InterruptedException {
-        String wingetCommand = "winget install -e --id MSYS2.MSYS2";
-        ProcessBuilder pb = new ProcessBuilder("powershell", "-Command", wingetCommand);
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-        startOutputMonitor(process, "MSYS2 Installation");
-        if (process.waitFor() == 0) {
-            // Install MinGW toolchain through MSYS2
-            ProcessBuilder msys2Pb = new ProcessBuilder(
-                "C:\\msys64\\usr\\bin\\bash.exe",
-                "-lc",
-                "pacman -S --noconfirm mingw-w64-x86_64-gcc mingw-w64-x86_64-make"
-            );
-            msys2Pb.redirectErrorStream(true);
-            Process msys2Process = msys2Pb.start();
-            startOutputMonitor(msys2Process, "MinGW Installation");
-            return msys2Process.waitFor() == 0;
+   
+    private JButton createStopButton(String project) {
+        JButton stopButton = new JButton("Stop");
+        stopButton.setEnabled(false);
+        stopButton.addActionListener(e -> stopProject(project));
+        stopButtons.put(project, stopButton);
+        return stopButton;
+    }
+   
+    private void showTimings() {
+        if (timingsDialog == null) {
+            timingsDialog = new TimingsDialog(this, core.getTimings());
         }
-        return false;
+        timingsDialog.refresh();
+        timingsDialog.setVisible(true);
     }
-
-    private boolean checkDependency(String command) {
+   
+    private void refreshGroups() {
+        Object selected = groupBox.getSelectedItem();
+        groupBox.removeAllItems();
         try {
-            ProcessBuilder pb = new ProcessBuilder("where", command);
-            Process process = pb.start();
-            return process.waitFor() == 0;
-        } catch (Exception e) {
-            return false;
+            for (String name : core.loadGroups().keySet()) {
+                groupBox.addItem(name);
+            }
+        } catch (RuntimeException e) {
+            groupBox.addItem(LaunchGroup.DEFAULT_GROUP);
+            groupStatusLabel.setText("Invalid launch groups: " + e.getMessage());
         }
-    }
-
-    private void installMissingDependencies(String projectType) throws IOException, InterruptedException {
-        boolean isWindows = System.getProperty("os.name").toLowerCase().contains("windows");
-        if (!isWindows) return;
-
-        switch (projectType) {
-            case "java":
-                if (!checkDependency("javac")) {
-                    if (installJDK()) {
-                        JOptionPane.showMessageDialog(this,
-                            "Java Development Kit has been installed. Please restart the application.",
-                            "Installation Complete",
-                            JOptionPane.INFORMATION_MESSAGE);
-                        System.exit(0);
-                    }
-                }
-                break;
-
-            case "cpp":
-                boolean cmakeInstalled = checkDependency("cmake");
-                boolean mingwInstalled = checkDependency("g++");
-               
-                if (!cmakeInstalled) {
-                    installCMake();
-                }
-                if (!mingwInstalled) {
-                    installMinGW();
-                }
-               
-                if (!cmakeInstalled || !mingwInstalled) {
-                    JOptionPane.showMessageDialog(this,
-                        "Development tools have been installed. Please restart the application.",
-                        "Installation Complete",
-                        JOptionPane.INFORMATION_MESSAGE);
-                    System.exit(0);
-                }
-                break;
-
-            case "python":
-                if (!checkDependency("python")) {
-                    if (installPython()) {
-                        JOptionPane.showMessageDialog(this,
-                            "Python has been installed. Please restart the application.",
-                            "Installation Complete",
-                            JOptionPane.INFORMATION_MESSAGE);
-                        System.exit(0);
-                    }
-                }
-                break;
-
-            case "typescript":
-                if (!checkDependency("npm")) {
-                    if (installNodejs()) {
-                        JOptionPane.showMessageDialog(this,
-                            "Node.js has been installed. Please restart the application.",
-                            "Installation Complete",
-                            JOptionPane.INFORMATION_MESSAGE);
-                        System.exit(0);
-                    }
-                }
-                break;
+        if (selected != null) {
+            groupBox.setSelectedItem(selected);
         }
     }
-
-    private boolean isWSLAvailable() {
-        if (!System.getProperty("os.name").toLowerCase().contains("windows")) {
-            return false;
-        }
-       
+   
+    private void launchGroup(String groupName) {
+        LaunchGroup group;
         try {
-            ProcessBuilder pb = new ProcessBuilder("wsl", "--status");
-            Process process = pb.start();
-            int exitCode = process.waitFor();
-            return exitCode == 0;
-        } catch (Exception e) {
-            return false;
+            group = core.loadGroups().get(groupName);
+        } catch (RuntimeException e) {
+            showError("Launch Group Error", e.getMessage());
+            return;
         }
-    }
-
-    private void runProject(String projectType) {
-        String projectPath = pathFields.get(projectType).getText();
-        Path path = Paths.get(projectPath).toAbsolutePath();
-       
-        // Verify the path exists and appropriate script is available
-        if (!verifyScriptExists(projectType)) {
+        if (group == null) {
             return;
         }
        
-        try {
-            ProcessBuilder pb = new ProcessBuilder();
-            pb.directory(path.toFile());
-            pb.redirectErrorStream(true);
-           
-            // Add system paths to environment
-            Map<String, String> env = pb.environment();
-            boolean isWindows = System.getProperty("os.name").toLowerCase().contains("windows");
-           
-            if (isWindows) {
-                // Windows: Set up paths for development tools
-                String programFiles = System.getenv("ProgramFiles");
-                String programFilesX86 = System.getenv("ProgramFiles(x86)");
-                String existingPath = env.get("Path"); // Windows uses "Path" not "PATH"
-               
-                StringBuilder pathBuilder = new StringBuilder();
-               
-                // Add MSYS2 paths first (as per setup instructions)
-                pathBuilder.append("C:\\msys64\\mingw64\\bin;");
-                pathBuilder.append("C:\\msys64\\usr\\bin;");
-               
-                // Then add other development tool paths
-                if (programFiles != null) {
-                    pathBuilder.append(programFiles).append("\\Java\\jdk-17\\bin;");
-                    pathBuilder.append(programFiles).append("\\CMake\\bin;");
-                    pathBuilder.append(programFiles).append("\\nodejs;");
-                }
-                if (programFilesX86 != null) {
-                    pathBuilder.append(programFilesX86).append("\\Java\\jdk-17\\bin;");
-                }
-               
-                // Append existing PATH
-                if (existingPath != null) {
-                    pathBuilder.append(existingPath);
-                }
-               
-                env.put("Path", pathBuilder.toString());
-               
-                // Set JAVA_HOME if not set
-                if (env.get("JAVA_HOME") == null) {
-                    String javaHome = programFiles + "\\Java\\jdk-17";
-                    if (Files.exists(Paths.get(javaHome))) {
-                        env.put("JAVA_HOME", javaHome);
-                    }
-                }
-            } else {
-                // Unix-based systems
-                String existingPath = env.get("PATH");
-                String systemPaths = "/opt/homebrew/bin:/opt/homebrew/sbin:/usr/local/bin:/usr/bin:/bin";
-                env.put("PATH", systemPaths + (existingPath != null ? ":" + existingPath : ""));
+        groupStatusLabel.setText("Launching " + String.join(", ", group.getProjects()) + "...");
+        StringBuilder progress = new StringBuilder();
+        core.launchGroup(group, result -> SwingUtilities.invokeLater(() -> {
+            if (progress.length() > 0) {
+                progress.append(", ");
             }
-
-            String scriptPath = null;
-           
-            if (isWindows) {
-                // On Windows, we need to use PowerShell to run the scripts
-                switch (projectType) {
-                    case "java":
-                    case "cpp":
-                        scriptPath = path.resolve("run.ps1").toString();
-                       
-                        // Check if run.ps1 exists
-                        if (!Files.exists(Paths.get(scriptPath))) {
-                            Path shPath = path.resolve("run.sh");
-                            if (Files.exists(shPath)) {
-                                // Confirm with the user before trying to use WSL
-                                int response = JOptionPane.showConfirmDialog(this,
-                                    "Windows PowerShell script (run.ps1) not found, but run.sh exists.\n" +
-                                    "Would you like to try using Windows Subsystem for Linux (WSL) to run it?",
-                                    "Script Not Found",
-                                    JOptionPane.YES_NO_OPTION);
-                                   
-                                if (response == JOptionPane.YES_OPTION) {
-                                    // Try to use Windows Subsystem for Linux to run the shell script
-                                    pb.command("wsl", "bash", "-c", "cd " + path + " && chmod +x ./run.sh && ./run.sh");
-                                    scriptPath = shPath.toString();
-                                } else {
-                                    throw new IOException("PowerShell script not found, and user declined to use WSL.");
-                                }
-                            } else {
-                                throw new IOException("Neither run.ps1 nor run.sh was found in " + path);
-                            }
-                        } else {
-                            // Enable script execution and run the PowerShell script
-                            pb.command(
-                                "powershell",
-                                "-ExecutionPolicy", "Bypass",
-                                "-NoProfile",
-                                "-File", scriptPath
-                            );
-                        }
-                        break;
-                       
-                    case "python":
-                        scriptPath = path.resolve("run.ps1").toString();
-                       
-                        // Check if run.ps1 exists
-                        if (!Files.exists(Paths.get(scriptPath))) {
-                            throw new IOException("PowerShell script not found for Python project");
-                        }
-                       
-                        // Just directly call the run.ps1 script for Python projects
-                        // This simplifies things by using the script that's known to work when run directly
-                        pb.command(
-                            "powershell",
-                            "-ExecutionPolicy", "Bypass",
-                            "-NoProfile",
-                            "-File", scriptPath
-                        );
-                       
-                        break;
-                       
-                    case "typescript":
-                        // Always use run.ps1 directly for TypeScript on Windows
-                        scriptPath = path.resolve("run.ps1").toString();
-                       
-                        if (!Files.exists(Paths.get(scriptPath))) {
-                            throw new IOException("PowerShell script not found for TypeScript project. Please ensure run.ps1 exists in " + path);
-                        }
-                       
-                        // Use the PowerShell script directly
-                        pb.command(
-                            "powershell",
-                            "-ExecutionPolicy", "Bypass",
-                            "-NoProfile",
-                            "-File", scriptPath
-                        );
-                        break;
-                       
-                    default:
-                        throw new IOException("Unknown project type: " + projectType);
-                }
-            } else {
-                // Unix systems use shell scripts
-                scriptPath = path.resolve("run.sh").toString();
-                runScript(pb, scriptPath, env);
-                pb.command("./run.sh");
+            progress.append(result);
+            groupStatusLabel.setText(progress.toString());
+        })).thenAccept(results -> SwingUtilities.invokeLater(() -> {
+            long ready = results.stream().filter(LaunchGroup.Result::isReady).count();
+            groupStatusLabel.setText("Group " + groupName + ": " + ready + "/" + results.size()
+                + " ready (" + progress + ")");
+        }));
+    }
+   
+    @Override
+    public String projectPath(String projectType) {
+        return onEdt(() -> pathText(pathFields.get(projectType)), null);
+    }
+   
+    private static String pathText(JComboBox<String> field) {
+        Object item = field.getEditor().getItem();
+        return item != null ? item.toString() : "";
+    }
+   
+    @Override
+    public void onProjectsDiscovered(List<WorkspaceIndex.Project> projects) {
+        SwingUtilities.invokeLater(() -> {
+            for (String project : RunnerCore.PROJECTS) {
+                fillPathChoices(project, projects);
             }
-
-            // This check is now handled within the platform-specific section above
-
-            // Start the process and monitor output
-            Process process = pb.start();
-            if (projectType.equals("typescript")) {
-                tsProcess = process;
-                typescriptBrowserButton.setEnabled(false);
-                tsUrl = null;
+        });
+    }
+   
+    // Offers the discovered folders of the type, keeping whatever the user has typed
+    private void fillPathChoices(String project, List<WorkspaceIndex.Project> projects) {
+        JComboBox<String> field = pathFields.get(project);
+        String current = pathText(field);
+        // Also picks up a missing default folder that the core has replaced with a discovered one
+        if (current.isEmpty() || current.equals(ProjectTypes.plan(project).getDefaultPath())) {
+            current = core.getConfiguredPath(project);
+        }
+        field.removeAllItems();
+        for (WorkspaceIndex.Project discovered : projects) {
+            if (discovered.getType().equals(project)) {
+                field.addItem(discovered.getPath().toString());
             }
-            startOutputMonitor(process, projectType);
-           
-        } catch (Exception e) {
+        }
+        field.setSelectedItem(current);
+    }
+   
+    @Override
+    public boolean confirm(String message, String title) {
+        return onEdt(() -> JOptionPane.showConfirmDialog(this, message, title, JOptionPane.YES_NO_OPTION),
+            JOptionPane.NO_OPTION) == JOptionPane.YES_OPTION;
+    }
+   
+    @Override
+    public void showMessage(String title, String message) {
+        onEdt(() -> {
+            JOptionPane.showMessageDialog(this, message, title, JOptionPane.INFORMATION_MESSAGE);
+            return null;
+        }, null);
+    }
+   
+    // Evaluates a Swing call on the EDT, waiting for it when called from a launch thread
+    private <T> T onEdt(Supplier<T> call, T fallback) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            return call.get();
+        }
+        AtomicReference<T> result = new AtomicReference<>(fallback);
+        try {
+            SwingUtilities.invokeAndWait(() -> result.set(call.get()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException e) {
             e.printStackTrace();
-            boolean isWindows = System.getProperty("os.name").toLowerCase().contains("windows");
-            String platformSpecificHelp = isWindows ?
-                "\nOn Windows, make sure to have:\n" +
-                "- PowerShell scripts (.ps1) or WSL for Linux shell scripts.\n" +
-                "- PowerShell execution policy that allows scripts (Set-ExecutionPolicy RemoteSigned).\n" :
-                "\nOn macOS/Linux, make sure run.sh has execute permissions (chmod +x run.sh).\n";
-               
-            showErrorDialog("Error",
-                "Error running " + projectType + " project:\n" + e.getMessage() +
-                platformSpecificHelp +
-                "\n\nMake sure all required tools are installed:\n" +
-                "- C++: " + (isWindows ? "MSYS2 with mingw-w64-x86_64-gcc, mingw-w64-x86_64-cmake" : "Compiler (gcc/clang) and CMake") + "\n" +
-                "- TypeScript: Node.js and npm\n" +
-                "- Python: Python 3.9 or later\n" +
-                "- Java: JDK 17 or later");
         }
+        return result.get();
     }
    
-    private void startOutputMonitor(Process process, String projectType) {
-        StringBuilder outputBuffer = new StringBuilder();
-        boolean[] hasError = {false}; // Array to allow modification in lambda
-        
-        new Thread(() -> {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    // Skip SDL touch device warning for C++ project
-                    if (projectType.equals("cpp") && line.contains("SDL Error after display: Unknown touch device id")) {
-                        continue;
+    private void launchProject(String projectType) {
+        int count = (Integer) instanceCounts.get(projectType).getValue();
+        core.launchInstances(projectType, count);
+        // Instances beyond the new count are being stopped
+        instanceRows.keySet().removeIf(instance -> {
+            if (!RunnerCore.projectTypeOf(instance).equals(projectType) || RunnerCore.instanceNumber(instance) <= count) {
+                return false;
+            }
+            instancePanel.remove(instanceRows.get(instance));
+            statusLabels.remove(instance);
+            stopButtons.remove(instance);
+            browserButtons.remove(instance);
+            urlLabels.remove(instance);
+            urls.remove(instance);
+            return true;
+        });
+        instancePanel.revalidate();
+        instancePanel.repaint();
+    }
+   
+    // Name, URL, stop button and status of an instance after the first, created on its first launch
+    private void addInstanceRow(String instance) {
+        if (instanceRows.containsKey(instance) || RunnerCore.instanceNumber(instance) <= 1) {
+            return;
+        }
+        JPanel row = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        row.add(new JLabel(instance));
+        if (ProjectTypes.plan(RunnerCore.projectTypeOf(instance)).isReadyOnUrl()) {
+            JButton browserButton = new JButton("Open in Browser");
+            browserButton.setEnabled(false);
+            browserButton.addActionListener(e -> openInBrowser(instance));
+            browserButtons.put(instance, browserButton);
+            row.add(browserButton);
+        }
+        row.add(createStopButton(instance));
+        row.add(createStatusLabel(instance));
+        JLabel urlLabel = new JLabel();
+        urlLabels.put(instance, urlLabel);
+        row.add(urlLabel);
+        instanceRows.put(instance, row);
+        instancePanel.add(row);
+        instancePanel.revalidate();
+    }
+   
+    @Override
+    public void onLaunchProgress(String projectType, LaunchEngine.Stage stage, LaunchEngine.Status status) {
+        SwingUtilities.invokeLater(() -> {
+            JLabel statusLabel = statusLabels.get(projectType);
+            JButton stopButton = stopButtons.get(projectType);
+            switch (status) {
+                case RUNNING:
+                    if (statusLabel == null) {
+                        addInstanceRow(projectType);
+                        statusLabel = statusLabels.get(projectType);
+                        stopButton = stopButtons.get(projectType);
                     }
-
-                    // Print output to console for debugging
-                    System.out.println(projectType + ": " + line);
-                    outputBuffer.append(projectType).append(": ").append(line).append("\n");
-                    
-                    // For TypeScript, look for the local server URL with improved detection
-                    if (projectType.equals("typescript")) {
-                        String lowerLine = line.toLowerCase();
-                        String extractedUrl = null;
-                        
-                        // Common patterns in Vite and other dev servers
-                        if (lowerLine.contains("local:") || 
-                            lowerLine.contains("localhost:") ||
-                            lowerLine.contains("127.0.0.1:")) {
-                            
-                            // First strip ANSI escape codes from the line
-                            String cleanLine = line.replaceAll("\u001B\\[[;\\d]*m", "");
-                            
-                            // Try different URL patterns
-                            java.util.regex.Pattern[] patterns = {
-                                // Standard Local: http://... pattern
-                                java.util.regex.Pattern.compile("Local:\\s*(https?://[^\\s]+)"),
-                                // Direct URL pattern
-                                java.util.regex.Pattern.compile("(https?://(?:localhost|127\\.0\\.0\\.1)[^\\s]+)"),
-                                // ➜ Local: pattern (Vite style)
-                                java.util.regex.Pattern.compile("➜\\s*Local:\\s*(https?://[^\\s]+)"),
-                                // VITE pattern
-                                java.util.regex.Pattern.compile("VITE\\s*.*?(https?://(?:localhost|127\\.0\\.0\\.1)[^\\s]+)")
-                            };
-                            
-                            // Try each pattern until we find a match
-                            for (java.util.regex.Pattern pattern : patterns) {
-                                java.util.regex.Matcher matcher = pattern.matcher(cleanLine);
-                                if (matcher.find()) {
-                                    extractedUrl = matcher.group(1);
-                                    break;
-                                }
-                            }
-                            
-                            if (extractedUrl != null) {
-                                // Clean up the URL - remove any remaining ANSI codes and trim
-                                final String url = extractedUrl.replaceAll("\u001B\\[[;\\d]*m", "").trim();
-                                System.out.println("Found TypeScript URL: " + url);
-                                SwingUtilities.invokeLater(() -> {
-                                    tsUrl = url;
-                                    typescriptBrowserButton.setEnabled(true);
-                                });
-                            }
-                        }
+                    setStatus(statusLabel, stage.getDescription() + "...");
+                    // Stop doubles as cancel while a launch is in progress
+                    if (stopButton != null) {
+                        stopButton.setEnabled(true);
                     }
-                   
-                    // Show error messages in GUI if they indicate a problem
-                    String lowerLine = line.toLowerCase();
-                    if ((lowerLine.contains("error") && 
-                         !lowerLine.contains("error after display") && 
-                         !lowerLine.contains("sdl error after display")) || 
-                        lowerLine.contains("exception") ||
-                        lowerLine.contains("failed") ||
-                        (lowerLine.contains("not found") && !lowerLine.contains("touch device")) ||
-                        (lowerLine.contains("sdl") && lowerLine.contains("error") && 
-                         !lowerLine.contains("touch device"))) {
-                        if (!hasError[0]) { // Only show first error
-                            hasError[0] = true;
-                            final String errorMessage = outputBuffer.toString();
-                            SwingUtilities.invokeLater(() ->
-                                showErrorDialog(projectType + " Error", errorMessage));
+                    // A new dev server run has no URL until it prints one
+                    JButton browserButton = browserButtons.get(projectType);
+                    if (stage == LaunchEngine.Stage.START && browserButton != null) {
+                        browserButton.setEnabled(false);
+                        urls.remove(projectType);
+                        JLabel urlLabel = urlLabels.get(projectType);
+                        if (urlLabel != null) {
+                            urlLabel.setText("");
                         }
                     }
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-                if (!hasError[0]) {
-                    final String errorMessage = "Error reading " + projectType + " output:\n" + 
-                        e.getMessage() + "\n\nFull output:\n" + outputBuffer.toString();
-                    SwingUtilities.invokeLater(() ->
-                        showErrorDialog("Error", errorMessage));
-                }
+                    break;
+                case STARTED:
+                    setStatus(statusLabel, "Running");
+                    break;
+                case CANCELLED:
+                    setStatus(statusLabel, "Cancelled");
+                    break;
+                case FAILED:
+                    setStatus(statusLabel, "Failed");
+                    if (stopButton != null && !core.getSupervisor().isRunning(projectType)) {
+                        stopButton.setEnabled(false);
+                    }
+                    break;
             }
-        }).start();
+        });
+    }
+   
+    private static void setStatus(JLabel statusLabel, String text) {
+        if (statusLabel != null) {
+            statusLabel.setText(text);
+        }
     }
    
-    private void openTypeScriptInBrowser() {
-        if (tsUrl != null) {
+    private void stopProject(String projectType) {
+        core.stopProject(projectType);
+    }
+   
+    @Override
+    public void onLogStore(String projectType, LogStore logStore) {
+        SwingUtilities.invokeLater(() -> {
+            consolePanel.attach(projectType, logStore);
+            consolePanel.select(projectType);
+        });
+    }
+   
+    @Override
+    public void onLogBatch(LogStore logStore, LogPipeline.Batch batch) {
+        // Runs on the EDT once per flushed batch
+        consolePanel.onBatch(batch);
+        JButton browserButton = browserButtons.get(batch.source);
+        if (batch.url != null && browserButton != null) {
+            urls.put(batch.source, batch.url);
+            browserButton.setEnabled(true);
+            browserButton.setToolTipText(batch.url);
+            JLabel urlLabel = urlLabels.get(batch.source);
+            if (urlLabel != null) {
+                urlLabel.setText(batch.url);
+            }
+        }
+    }
+   
+    private void openInBrowser(String projectType) {
+        String url = urls.get(projectType);
+        if (url != null) {
             try {
-                Desktop.getDesktop().browse(new java.net.URI(tsUrl));
+                Desktop.getDesktop().browse(new java.net.URI(url));
             } catch (Exception e) {
                 e.printStackTrace();
                 JOptionPane.showMessageDialog(this,
@@ -806,7 +680,8 @@ public class DevRunner extends JFrame {
         }
     }
    
-    private void showErrorDialog(String title, String message) {
+    @Override
+    public void showError(String title, String message) {
         // Create a text area for showing the error
         JTextArea textArea = new JTextArea(message);
         textArea.setEditable(false);
@@ -823,61 +698,21 @@ public class DevRunner extends JFrame {
             JOptionPane.showMessageDialog(this, scrollPane, title, JOptionPane.ERROR_MESSAGE));
     }
    
-    private boolean verifyScriptExists(String projectType) {
-        String projectPath = pathFields.get(projectType).getText();
-        Path path = Paths.get(projectPath).toAbsolutePath();
-       
-        if (!Files.exists(path)) {
-            showErrorDialog("Path Error", "Project path does not exist: " + path);
-            return false;
-        }
-       
-        boolean isWindows = System.getProperty("os.name").toLowerCase().contains("windows");
-        Path scriptPath;
-       
-        if (isWindows) {
-            scriptPath = path.resolve("run.ps1");
-            if (!Files.exists(scriptPath)) {
-                // Check if run.sh exists as a fallback
-                Path shPath = path.resolve("run.sh");
-                if (Files.exists(shPath)) {
-                    // Check if WSL is available before offering it as an option
-                    if (isWSLAvailable()) {
-                        int response = JOptionPane.showConfirmDialog(this,
-                            "Windows PowerShell script (run.ps1) not found, but run.sh exists.\n" +
-                            "Would you like to try using Windows Subsystem for Linux (WSL) to run it?",
-                            "Script Not Found",
-                            JOptionPane.YES_NO_OPTION);
-                        return response == JOptionPane.YES_OPTION;
-                    } else {
-                        showErrorDialog("Script Not Found",
-                            "The PowerShell script (run.ps1) was not found for this project.\n" +
-                            "A shell script (run.sh) exists, but Windows Subsystem for Linux (WSL) is not available.\n\n" +
-                            "Please make sure you have the appropriate script files for your platform, or install WSL.");
-                        return false;
-                    }
-                } else {
-                    showErrorDialog("Script Not Found",
-                        "Neither run.ps1 nor run.sh was found in " + path +
-                        "\n\nPlease make sure you have the appropriate script files for your platform.");
-                    return false;
-                }
-            }
-        } else {
-            // Unix system
-            scriptPath = path.resolve("run.sh");
-            if (!Files.exists(scriptPath)) {
-                showErrorDialog("Script Not Found",
-                    "Script file run.sh not found in " + path +
-                    "\n\nPlease make sure you have the appropriate script files for your platform.");
-                return false;
-            }
-        }
-       
-        return true;
+    @Override
+    public void showError(String title, String header, LogStore logStore) {
+        // Only the bounded tail of the store is copied, and only once the EDT shows it
+        SwingUtilities.invokeLater(() -> {
+            StringBuilder message = new StringBuilder(header);
+            logStore.appendTail(message, RunnerCore.ERROR_LOG_LINES);
+            showError(title, message.toString());
+        });
     }
    
-    public static void main(String[] args) {
+    static void start() {
+        // Read the config and decode the icons while AWT and the look and feel initialize
+        CompletableFuture<JSONObject> pendingConfig = RunnerCore.readConfigAsync();
+        IconLoader.preload(RunnerCore.PROJECTS);
+       
         // Set system look and feel
         try {
             UIManager.setLookAndFeel(
@@ -887,6 +722,17 @@ public class DevRunner extends JFrame {
         }
        
         // Create and show GUI
-        SwingUtilities.invokeLater(() -> new DevRunner());
+        SwingUtilities.invokeLater(() -> {
+            try {
+                new DevRunner(pendingConfig);
+            } catch (HeadlessException e) {
+                System.err.println("No display available; use --headless or --daemon instead.");
+                System.exit(1);
+            }
+        });
+    }
+   
+    public static void main(String[] args) {
+        Main.main(args);
     }
-}
\ No newline at end of file
+}
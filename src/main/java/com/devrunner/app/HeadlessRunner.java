@@ -0,0 +1,245 @@
+package com.devrunner.app;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command-line frontend: launches projects without a window, streams their
+ * output to the terminal and exits with their outcome, so DevRunner can be
+ * used over SSH and in CI. Questions the window would ask are answered "no".
+ *
+ * <pre>
+ * --headless run java cpp [--watch] [--instances n]
+ * --headless group &lt;name&gt; [--watch]
+ * </pre>
+ */
+public class HeadlessRunner implements RunnerCore.Frontend {
+    private volatile boolean failed;
+    // Counted down once a project's output has been fully echoed
+    private final Map<String, CountDownLatch> outputDone = new ConcurrentHashMap<>();
+
+    @Override
+    public Executor logExecutor() {
+        // Batches are only echoed, so they are handled on the flusher thread
+        return Runnable::run;
+    }
+
+    @Override
+    public boolean echoesOutput() {
+        return true;
+    }
+
+    @Override
+    public void onLogBatch(LogStore logStore, LogPipeline.Batch batch) {
+        if (batch.closed) {
+            outputDone(batch.source).countDown();
+        }
+    }
+
+    private CountDownLatch outputDone(String project) {
+        return outputDone.computeIfAbsent(project, p -> new CountDownLatch(1));
+    }
+
+    @Override
+    public boolean confirm(String message, String title) {
+        System.err.println(title + ": " + message);
+        System.err.println("(answering no; run without --headless to choose)");
+        return false;
+    }
+
+    @Override
+    public void showError(String title, String message) {
+        System.err.println(title + ": " + message);
+    }
+
+    @Override
+    public void showError(String title, String header, LogStore logStore) {
+        // The output itself has already been echoed to the terminal
+        System.err.println(header.isEmpty() ? title : title + ": " + header.trim());
+    }
+
+    @Override
+    public void onLaunchProgress(String project, LaunchEngine.Stage stage, LaunchEngine.Status status) {
+        switch (status) {
+            case RUNNING:
+                System.out.println("[" + project + "] " + stage.getDescription() + "...");
+                break;
+            case STARTED:
+                System.out.println("[" + project + "] Running");
+                break;
+            case CANCELLED:
+                System.out.println("[" + project + "] Cancelled");
+                break;
+            case FAILED:
+                failed = true;
+                System.err.println("[" + project + "] Failed");
+                break;
+        }
+    }
+
+    // Returns the process exit status
+    public static int run(String[] args) {
+        List<String> words = new ArrayList<>(Arrays.asList(args));
+        boolean watch = words.remove("--watch");
+        int instances = 1;
+        int instancesAt = words.indexOf("--instances");
+        if (instancesAt >= 0) {
+            try {
+                instances = Integer.parseInt(words.get(instancesAt + 1));
+            } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                instances = 0;
+            }
+            if (instances < 1) {
+                System.err.println("--instances needs a positive count");
+                Main.usage();
+                return 2;
+            }
+            words.subList(instancesAt, instancesAt + 2).clear();
+        }
+        if (words.size() < 2 || !(words.get(0).equals("run") || words.get(0).equals("group"))) {
+            Main.usage();
+            return 2;
+        }
+
+        HeadlessRunner frontend = new HeadlessRunner();
+        RunnerCore core = new RunnerCore(frontend);
+        core.start();
+        // Ctrl-C takes every launched process tree down with it
+        Runtime.getRuntime().addShutdownHook(new Thread(core::shutdown, "headless-shutdown"));
+
+        List<String> projects;
+        if (words.get(0).equals("run")) {
+            projects = words.subList(1, words.size());
+            for (String project : projects) {
+                if (!core.isProject(project)) {
+                    System.err.println("Unknown project: " + project);
+                    Main.usage();
+                    return 2;
+                }
+            }
+            List<LaunchEngine.Launch> launches = new ArrayList<>();
+            if (instances > 1) {
+                // Every instance is waited for and watched like a project of its own
+                List<String> named = new ArrayList<>();
+                for (String project : projects) {
+                    for (LaunchEngine.Launch launch : core.launchInstances(project, instances)) {
+                        launches.add(launch);
+                        named.add(launch.getProject());
+                    }
+                }
+                projects = named;
+            } else {
+                projects.forEach(project -> launches.add(core.launchProject(project)));
+            }
+            for (LaunchEngine.Launch launch : launches) {
+                try {
+                    launch.started().join();
+                } catch (CompletionException | CancellationException e) {
+                    frontend.failed = true;
+                }
+            }
+        } else {
+            LaunchGroup group;
+            try {
+                group = core.loadGroups().get(words.get(1));
+            } catch (RuntimeException e) {
+                System.err.println("Invalid launch groups: " + e.getMessage());
+                return 2;
+            }
+            if (group == null) {
+                System.err.println("No launch group named " + words.get(1) + "; known groups: "
+                    + String.join(", ", core.loadGroups().keySet()));
+                return 2;
+            }
+            projects = group.getProjects();
+            List<LaunchGroup.Result> results = core.launchGroup(group, result -> { }).join();
+            if (results.stream().anyMatch(result -> !result.isReady())) {
+                frontend.failed = true;
+            }
+        }
+        if (frontend.failed) {
+            core.shutdown();
+            return 1;
+        }
+
+        if (watch) {
+            for (String project : projects) {
+                core.setWatching(project, true);
+            }
+            System.out.println("Watching " + String.join(", ", projects) + " for changes; press Ctrl-C to stop");
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 0;
+        }
+
+        // Without --watch the runner lives as long as the projects do, restarts included
+        int status = 0;
+        for (String project : projects) {
+            LaunchEngine.Launch launch = core.getLaunch(project);
+            try {
+                while (launch != null) {
+                    // The launch's own process, which may already have exited and left the supervisor
+                    ProcessSupervisor.ManagedProcess managed = launch.getProcess();
+                    if (managed == null) {
+                        // A restart that failed or was cancelled before it spawned anything
+                        status = 1;
+                        break;
+                    }
+                    int exitCode = managed.getProcess().waitFor();
+                    // Let the last lines reach the terminal before reporting
+                    frontend.outputDone(project).await(2, TimeUnit.SECONDS);
+                    frontend.outputDone.remove(project);
+                    System.out.println("[" + project + "] " + PostMortem.describeExit(exitCode));
+                    if (exitCode != 0) {
+                        status = 1;
+                    }
+                    launch = nextLaunch(core, project, launch, managed);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 1;
+            }
+        }
+        return status;
+    }
+
+    /**
+     * The restart that the project's restart policy started after the run
+     * exited, once its START stage is over; null if none is coming.
+     */
+    private static LaunchEngine.Launch nextLaunch(RunnerCore core, String project, LaunchEngine.Launch previous,
+                                                  ProcessSupervisor.ManagedProcess exited)
+            throws InterruptedException {
+        // The supervisor frees the slot only after the core has decided on a restart
+        while (core.getSupervisor().get(project) == exited) {
+            Thread.sleep(50);
+        }
+        while (true) {
+            LaunchEngine.Launch latest = core.getLaunch(project);
+            if (latest != previous) {
+                try {
+                    latest.started().join();
+                } catch (CompletionException | CancellationException e) {
+                    // Reported by the launch itself; the caller sees that no process was spawned
+                }
+                return latest;
+            }
+            // A pending restart is launched before it stops being pending, so there is no gap here
+            if (!core.isRestartPending(project)) {
+                return null;
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.devrunner.app;
+
+import java.awt.Dimension;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+/**
+ * Project icons for the window. The build scales them to 24x24 ahead of time
+ * (icons/24/&lt;project&gt;.png), so loading one is a plain PNG decode, and the
+ * decode runs off the EDT: labels are laid out at their final size right
+ * away and get their icon once it is ready. When only the full-size images
+ * are on the classpath, as when running from an IDE, they are scaled here.
+ */
+final class IconLoader {
+    static final int SIZE = 24;
+    private static final Map<String, CompletableFuture<ImageIcon>> ICONS = new ConcurrentHashMap<>();
+
+    private IconLoader() {
+    }
+
+    // Starts decoding so the icons are usually ready before the window is built
+    static void preload(Iterable<String> projects) {
+        projects.forEach(IconLoader::icon);
+    }
+
+    static JLabel label(String project) {
+        JLabel label = new JLabel();
+        label.setPreferredSize(new Dimension(30, SIZE));
+        icon(project).thenAccept(icon -> {
+            if (icon != null) {
+                SwingUtilities.invokeLater(() -> label.setIcon(icon));
+            }
+        });
+        return label;
+    }
+
+    private static CompletableFuture<ImageIcon> icon(String project) {
+        return ICONS.computeIfAbsent(project, p -> CompletableFuture.supplyAsync(() -> decode(p)));
+    }
+
+    private static ImageIcon decode(String project) {
+        try {
+            BufferedImage scaled = read("/icons/" + SIZE + "/" + project + ".png");
+            if (scaled != null) {
+                return new ImageIcon(scaled);
+            }
+            BufferedImage original = read("/icons/" + project + ".png");
+            if (original != null) {
+                // ImageIcon waits for the scaled image, so this stays on the loader thread
+                return new ImageIcon(original.getScaledInstance(SIZE, SIZE, Image.SCALE_SMOOTH));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    private static BufferedImage read(String resource) throws IOException {
+        InputStream in = IconLoader.class.getResourceAsStream(resource);
+        if (in == null) {
+            return null;
+        }
+        try (in) {
+            return ImageIO.read(in);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.json.JSONObject;
+
+/**
+ * Content hashes of a Node project's manifest and lockfiles, recorded after
+ * each successful install so the next launch can tell whether dependencies
+ * need installing again. The files are hashed through memory-mapped reads,
+ * so even a large lockfile is checked without copying it onto the heap.
+ */
+public final class InstallFingerprint {
+    private static final String[] INPUTS = {"package.json", "package-lock.json", "pnpm-lock.yaml", "yarn.lock"};
+    private static final long MAP_CHUNK = 64L * 1024 * 1024;
+
+    private final Path storeFile;
+
+    // storeFile holds one fingerprint per project directory
+    public InstallFingerprint(Path storeFile) {
+        this.storeFile = storeFile;
+    }
+
+    // SHA-256 over the name, size and contents of every install input present in the project
+    public static String compute(Path projectDir) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (String input : INPUTS) {
+            Path file = projectDir.resolve(input);
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                digest.update((input + '\0' + size + '\0').getBytes(StandardCharsets.UTF_8));
+                for (long position = 0; position < size; position += MAP_CHUNK) {
+                    MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY,
+                        position, Math.min(MAP_CHUNK, size - position));
+                    digest.update(chunk);
+                }
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * True if dependencies must be installed: node_modules is missing or the
+     * manifest or a lockfile has changed since the last recorded install.
+     */
+    public synchronized boolean needsInstall(Path projectDir) throws IOException {
+        if (!Files.exists(projectDir.resolve("node_modules"))) {
+            return true;
+        }
+        String recorded = read().optString(key(projectDir), null);
+        return recorded == null || !recorded.equals(compute(projectDir));
+    }
+
+    // Call after a successful install; npm may have rewritten the lockfile, so hash it again
+    public synchronized void record(Path projectDir) throws IOException {
+        JSONObject store = read();
+        store.put(key(projectDir), compute(projectDir));
+        Path parent = storeFile.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, "fingerprints", ".tmp");
+        Files.writeString(temp, store.toString(4));
+        Files.move(temp, storeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String key(Path projectDir) {
+        return projectDir.toAbsolutePath().normalize().toString();
+    }
+
+    private JSONObject read() {
+        if (!Files.exists(storeFile)) {
+            return new JSONObject();
+        }
+        try {
+            return new JSONObject(Files.readString(storeFile));
+        } catch (IOException | RuntimeException e) {
+            // A damaged store only costs one extra install
+            return new JSONObject();
+        }
+    }
+}
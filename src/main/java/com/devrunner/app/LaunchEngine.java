@@ -0,0 +1,263 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs a project launch as a chain of stages on background threads. Each
+ * stage is a {@link CompletableFuture} step, so the EDT only ever sees
+ * progress callbacks. A launch can be cancelled between stages, and
+ * cancelling also kills the helper process of the stage that is running.
+ */
+public class LaunchEngine {
+    public enum Stage {
+        VERIFY("Verifying"),
+        ENVIRONMENT("Preparing environment"),
+        PERMISSIONS("Preparing script"),
+        INSTALL("Installing dependencies"),
+        CACHE("Checking build cache"),
+        START("Starting");
+
+        private final String description;
+
+        Stage(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    public enum Status {
+        RUNNING, STARTED, CANCELLED, FAILED
+    }
+
+    public interface StageAction {
+        void run(Launch launch) throws Exception;
+    }
+
+    public interface Listener {
+        // Called from launch threads; stage is null once the launch has finished
+        void onProgress(String project, Stage stage, Status status, Throwable failure);
+    }
+
+    /**
+     * Thrown by a stage that has already told the user why the launch
+     * cannot go ahead, so the engine should stop without reporting again.
+     */
+    public static class AbortedException extends Exception {
+        public AbortedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * State shared by the stages of one launch: where the project lives and
+     * the ProcessBuilder the stages assemble before START runs it.
+     */
+    public final class Launch {
+        private final String project;
+        private final CompletableFuture<Void> started = new CompletableFuture<>();
+        private volatile boolean cancelled;
+        private volatile Process helper;
+        private volatile Stage stage;
+        // The main process START spawned, once it has
+        private volatile ProcessSupervisor.ManagedProcess process;
+        private Path path;
+        private ProcessBuilder builder;
+
+        Launch(String project) {
+            this.project = project;
+        }
+
+        public String getProject() {
+            return project;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public void setPath(Path path) {
+            this.path = path;
+        }
+
+        public ProcessBuilder getBuilder() {
+            return builder;
+        }
+
+        public void setBuilder(ProcessBuilder builder) {
+            this.builder = builder;
+        }
+
+        public Stage getStage() {
+            return stage;
+        }
+
+        public ProcessSupervisor.ManagedProcess getProcess() {
+            return process;
+        }
+
+        public void setProcess(ProcessSupervisor.ManagedProcess process) {
+            this.process = process;
+        }
+
+        // Completes once the START stage has spawned the project's process
+        public CompletableFuture<Void> started() {
+            return started;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean cancel() {
+            if (started.isDone()) {
+                return false;
+            }
+            cancelled = true;
+            Process running = helper;
+            if (running != null) {
+                ProcessSupervisor.destroyTree(running.toHandle(), 1000);
+            }
+            return started.completeExceptionally(new CancellationException(project + " launch cancelled"));
+        }
+
+        /**
+         * Runs a helper process for the current stage, waiting up to the
+         * timeout while staying responsive to cancellation. Returns the exit
+         * code, or -1 if the helper timed out and was killed.
+         */
+        public int runHelper(String label, ProcessBuilder helperBuilder, long timeout, TimeUnit unit,
+                             Consumer<Process> onStarted)
+                throws IOException, InterruptedException, AbortedException {
+            checkCancelled();
+            LaunchTimings.Span span = timings.start(project, label);
+            Process process = supervisor.startHelper(label, helperBuilder).getProcess();
+            helper = process;
+            if (onStarted != null) {
+                onStarted.accept(process);
+            }
+            try {
+                long deadline = System.nanoTime() + unit.toNanos(timeout);
+                while (!process.waitFor(100, TimeUnit.MILLISECONDS)) {
+                    checkCancelled();
+                    if (System.nanoTime() > deadline) {
+                        ProcessSupervisor.destroyTree(process.toHandle(), 1000);
+                        return -1;
+                    }
+                }
+                span.end();
+                return process.exitValue();
+            } finally {
+                helper = null;
+            }
+        }
+
+        public Process startHelper(String label, ProcessBuilder helperBuilder) throws IOException, AbortedException {
+            checkCancelled();
+            Process process = supervisor.startHelper(label, helperBuilder).getProcess();
+            helper = process;
+            return process;
+        }
+
+        public void checkCancelled() throws AbortedException {
+            if (cancelled) {
+                throw new AbortedException(project + " launch cancelled");
+            }
+        }
+    }
+
+    private final ProcessSupervisor supervisor;
+    private final Executor executor;
+    private final Listener listener;
+    private final LaunchTimings timings;
+    private final Map<String, Launch> inFlight = new ConcurrentHashMap<>();
+
+    public LaunchEngine(ProcessSupervisor supervisor, Executor executor, Listener listener, LaunchTimings timings) {
+        this.supervisor = supervisor;
+        this.executor = executor;
+        this.listener = listener;
+        this.timings = timings;
+    }
+
+    /**
+     * Starts a launch running the given stages in order. Any launch of the
+     * same project that is still in progress is cancelled first.
+     */
+    public Launch launch(String project, LinkedHashMap<Stage, StageAction> stages) {
+        Launch launch = new Launch(project);
+        Launch previous = inFlight.put(project, launch);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (Map.Entry<Stage, StageAction> entry : stages.entrySet()) {
+            Stage stage = entry.getKey();
+            StageAction action = entry.getValue();
+            chain = chain.thenRunAsync(() -> runStage(launch, stage, action), executor);
+        }
+        chain.whenComplete((ignored, error) -> {
+            inFlight.remove(project, launch);
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+            if (cause == null && launch.isCancelled()) {
+                // Cancelled while START was spawning the process; undo it, but not a newer launch's process
+                ProcessSupervisor.ManagedProcess spawned = launch.process;
+                if (spawned != null) {
+                    supervisor.stop(spawned);
+                }
+                listener.onProgress(project, null, Status.CANCELLED, null);
+            } else if (cause == null) {
+                launch.started.complete(null);
+                listener.onProgress(project, null, Status.STARTED, null);
+            } else if (launch.isCancelled()) {
+                launch.started.completeExceptionally(new CancellationException(project + " launch cancelled"));
+                listener.onProgress(project, null, Status.CANCELLED, null);
+            } else {
+                launch.started.completeExceptionally(cause);
+                listener.onProgress(project, null, Status.FAILED, cause);
+            }
+        });
+        return launch;
+    }
+
+    private void runStage(Launch launch, Stage stage, StageAction action) {
+        try {
+            launch.checkCancelled();
+            launch.stage = stage;
+            listener.onProgress(launch.project, stage, Status.RUNNING, null);
+            // Only completed stages are timed; failures and cancellations would skew the percentiles
+            LaunchTimings.Span span = timings.start(launch.project, stage.name().toLowerCase());
+            action.run(launch);
+            span.end();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    // Cancels an in-progress launch; returns false if none was running
+    public boolean cancel(String project) {
+        Launch launch = inFlight.get(project);
+        return launch != null && launch.cancel();
+    }
+
+    public boolean isLaunching(String project) {
+        return inFlight.containsKey(project);
+    }
+}
@@ -0,0 +1,235 @@
+package com.devrunner.app;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * A named set of projects launched together. Projects without ordering
+ * constraints start in parallel; a project listed under "after" starts only
+ * once every project it depends on has reported ready.
+ *
+ * <pre>
+ * "groups": {
+ *     "fullstack": {
+ *         "projects": ["typescript", "cpp", "python"],
+ *         "after": { "python": ["typescript"] },
+ *         "readyTimeoutSec": 120
+ *     }
+ * }
+ * </pre>
+ */
+public class LaunchGroup {
+    public static final String DEFAULT_GROUP = "all";
+    private static final long DEFAULT_READY_TIMEOUT_SEC = 120;
+
+    public interface Launcher {
+        // Starts the project and completes once it is ready
+        CompletableFuture<Void> launch(String project);
+    }
+
+    public interface Listener {
+        void onResult(Result result);
+    }
+
+    public static final class Result {
+        public final String project;
+        public final long readyMillis;
+        public final String failure;
+
+        Result(String project, long readyMillis, String failure) {
+            this.project = project;
+            this.readyMillis = readyMillis;
+            this.failure = failure;
+        }
+
+        public boolean isReady() {
+            return failure == null;
+        }
+
+        @Override
+        public String toString() {
+            return isReady()
+                ? project + " ready in " + readyMillis + " ms"
+                : project + " " + failure;
+        }
+    }
+
+    private final String name;
+    private final List<String> order;
+    private final Map<String, List<String>> after;
+    private final long readyTimeoutSec;
+
+    public LaunchGroup(String name, List<String> projects, Map<String, List<String>> after, long readyTimeoutSec) {
+        this.name = name;
+        this.after = after;
+        this.readyTimeoutSec = readyTimeoutSec;
+        for (Map.Entry<String, List<String>> entry : after.entrySet()) {
+            if (!projects.contains(entry.getKey())) {
+                throw new IllegalArgumentException("Group '" + name + "' orders '" + entry.getKey() + "', which is not in the group");
+            }
+            for (String dependency : entry.getValue()) {
+                if (!projects.contains(dependency)) {
+                    throw new IllegalArgumentException("Group '" + name + "' makes '" + entry.getKey()
+                        + "' wait for '" + dependency + "', which is not in the group");
+                }
+            }
+        }
+        this.order = topologicalOrder(projects);
+    }
+
+    // Reads every group from the config and adds the built-in "all" group if missing; every
+    // project a group lists must be one of allProjects, or an instance of one such as python#2
+    public static Map<String, LaunchGroup> fromConfig(JSONObject config, List<String> allProjects) {
+        Map<String, LaunchGroup> groups = new LinkedHashMap<>();
+        groups.put(DEFAULT_GROUP, new LaunchGroup(DEFAULT_GROUP, allProjects,
+            Collections.emptyMap(), DEFAULT_READY_TIMEOUT_SEC));
+        JSONObject section = config != null ? config.optJSONObject("groups") : null;
+        if (section == null) {
+            return groups;
+        }
+        for (String groupName : section.keySet()) {
+            JSONObject group = section.getJSONObject(groupName);
+            List<String> projects = strings(group.getJSONArray("projects"));
+            for (String project : projects) {
+                if (!allProjects.contains(RunnerCore.projectTypeOf(project))) {
+                    throw new IllegalArgumentException("Group '" + groupName + "' lists '" + project
+                        + "', which is not a project type; expected one of " + String.join(", ", allProjects));
+                }
+            }
+            Map<String, List<String>> after = new HashMap<>();
+            JSONObject afterSection = group.optJSONObject("after");
+            if (afterSection != null) {
+                for (String project : afterSection.keySet()) {
+                    Object value = afterSection.get(project);
+                    after.put(project, value instanceof JSONArray
+                        ? strings((JSONArray) value)
+                        : Collections.singletonList(value.toString()));
+                }
+            }
+            groups.put(groupName, new LaunchGroup(groupName, projects, after,
+                group.optLong("readyTimeoutSec", DEFAULT_READY_TIMEOUT_SEC)));
+        }
+        return groups;
+    }
+
+    private static List<String> strings(JSONArray array) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < array.length(); i++) {
+            values.add(array.getString(i));
+        }
+        return values;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getProjects() {
+        return Collections.unmodifiableList(order);
+    }
+
+    /**
+     * Launches every project as soon as its dependencies are ready and
+     * completes with one result per project, in start order. A project whose
+     * dependency failed is skipped rather than started.
+     */
+    public CompletableFuture<List<Result>> run(Launcher launcher, Executor executor, Listener listener) {
+        Map<String, CompletableFuture<Result>> results = new LinkedHashMap<>();
+        for (String project : order) {
+            List<String> dependencies = after.getOrDefault(project, Collections.emptyList());
+            CompletableFuture<?>[] waits = dependencies.stream()
+                .map(results::get)
+                .toArray(CompletableFuture[]::new);
+
+            CompletableFuture<Result> result = CompletableFuture.allOf(waits)
+                .thenComposeAsync(ignored -> {
+                    for (String dependency : dependencies) {
+                        Result dependencyResult = results.get(dependency).join();
+                        if (!dependencyResult.isReady()) {
+                            return CompletableFuture.completedFuture(
+                                new Result(project, -1, "skipped because " + dependency + " did not become ready"));
+                        }
+                    }
+                    return launchAndTime(project, launcher);
+                }, executor)
+                .whenComplete((done, error) -> {
+                    if (done != null) {
+                        listener.onResult(done);
+                    }
+                });
+            results.put(project, result);
+        }
+
+        List<CompletableFuture<Result>> all = new ArrayList<>(results.values());
+        return CompletableFuture.allOf(all.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> {
+                List<Result> report = new ArrayList<>();
+                all.forEach(future -> report.add(future.join()));
+                return report;
+            });
+    }
+
+    private CompletableFuture<Result> launchAndTime(String project, Launcher launcher) {
+        long start = System.nanoTime();
+        CompletableFuture<Void> ready;
+        try {
+            ready = launcher.launch(project);
+        } catch (RuntimeException e) {
+            ready = CompletableFuture.failedFuture(e);
+        }
+        return ready
+            .orTimeout(readyTimeoutSec, TimeUnit.SECONDS)
+            .handle((ignored, error) -> {
+                if (error == null) {
+                    return new Result(project, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), null);
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+                String reason = cause instanceof TimeoutException
+                    ? "not ready after " + readyTimeoutSec + " s"
+                    : "failed: " + cause.getMessage();
+                return new Result(project, -1, reason);
+            });
+    }
+
+    private List<String> topologicalOrder(List<String> projects) {
+        List<String> sorted = new ArrayList<>();
+        Map<String, Integer> state = new HashMap<>();
+        for (String project : projects) {
+            visit(project, state, sorted, new ArrayList<>());
+        }
+        return sorted;
+    }
+
+    // state: 1 = on the current path, 2 = done
+    private void visit(String project, Map<String, Integer> state, List<String> sorted, List<String> path) {
+        Integer current = state.get(project);
+        if (current != null && current == 2) {
+            return;
+        }
+        path.add(project);
+        if (current != null) {
+            throw new IllegalArgumentException("Group '" + name + "' has an ordering cycle: " + String.join(" -> ", path));
+        }
+        state.put(project, 1);
+        for (String dependency : after.getOrDefault(project, Collections.emptyList())) {
+            visit(dependency, state, sorted, path);
+        }
+        state.put(project, 2);
+        path.remove(path.size() - 1);
+        sorted.add(project);
+    }
+}
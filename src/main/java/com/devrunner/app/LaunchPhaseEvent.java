@@ -0,0 +1,24 @@
+package com.devrunner.app;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one phase of bringing a project up. It is only
+ * recorded while a recording is running, for example when DevRunner is
+ * started with -XX:StartFlightRecording.
+ */
+@Name("com.devrunner.LaunchPhase")
+@Label("Launch Phase")
+@Category("DevRunner")
+@Description("Time spent in one phase of launching a project")
+class LaunchPhaseEvent extends Event {
+    @Label("Project")
+    String project;
+
+    @Label("Phase")
+    String phase;
+}
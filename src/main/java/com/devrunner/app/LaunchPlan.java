@@ -0,0 +1,122 @@
+package com.devrunner.app;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything a launch needs to know about a {@link ProjectType}, worked out
+ * once when the type is loaded: the command lines for this platform, how
+ * readiness is detected and which stages run. Immutable, so launches share
+ * one plan per type and a click costs a map lookup.
+ */
+public final class LaunchPlan {
+    static final boolean WINDOWS = System.getProperty("os.name").toLowerCase().contains("windows");
+    // Enable script execution and run the PowerShell script
+    private static final List<String> POWERSHELL =
+        List.of("powershell", "-ExecutionPolicy", "Bypass", "-NoProfile", "-File");
+
+    private final ProjectType type;
+    private final String id;
+    private final String displayName;
+    private final String defaultPath;
+    private final String unixScript;
+    private final String windowsScript;
+    private final List<String> unixCommand;
+    private final String wslScriptCommand;
+    private final List<String> markers;
+    private final boolean wslFallback;
+    private final ProjectType.Readiness readiness;
+    private final boolean installsNodeModules;
+    private final boolean buildsNativeCode;
+    private final List<ProjectType.Dependency> dependencies;
+
+    LaunchPlan(ProjectType type) {
+        this.type = type;
+        id = type.id();
+        displayName = type.displayName();
+        defaultPath = type.defaultPath();
+        unixScript = type.unixScript();
+        windowsScript = type.windowsScript();
+        unixCommand = List.of("./" + unixScript);
+        wslScriptCommand = "chmod +x ./" + unixScript + " && ./" + unixScript;
+        markers = List.copyOf(type.markers());
+        wslFallback = type.wslFallback();
+        readiness = type.readiness();
+        installsNodeModules = type.installsNodeModules();
+        buildsNativeCode = type.buildsNativeCode();
+        dependencies = List.copyOf(type.dependencies());
+    }
+
+    public ProjectType getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getDefaultPath() {
+        return defaultPath;
+    }
+
+    public String getUnixScript() {
+        return unixScript;
+    }
+
+    public String getWindowsScript() {
+        return windowsScript;
+    }
+
+    // The script this platform runs
+    public String getScript() {
+        return WINDOWS ? windowsScript : unixScript;
+    }
+
+    public List<String> getUnixCommand() {
+        return unixCommand;
+    }
+
+    public List<String> windowsCommand(Path script) {
+        List<String> command = new ArrayList<>(POWERSHELL);
+        command.add(script.toString());
+        return command;
+    }
+
+    // Runs the Unix script through Windows Subsystem for Linux
+    public List<String> wslCommand(Path projectDir) {
+        return List.of("wsl", "bash", "-c", "cd " + projectDir + " && " + wslScriptCommand);
+    }
+
+    public List<String> getMarkers() {
+        return markers;
+    }
+
+    public boolean hasWslFallback() {
+        return wslFallback;
+    }
+
+    public ProjectType.Readiness getReadiness() {
+        return readiness;
+    }
+
+    public boolean isReadyOnUrl() {
+        return readiness == ProjectType.Readiness.URL;
+    }
+
+    public boolean installsNodeModules() {
+        return installsNodeModules;
+    }
+
+    public boolean buildsNativeCode() {
+        return buildsNativeCode;
+    }
+
+    public List<ProjectType.Dependency> getDependencies() {
+        return dependencies;
+    }
+}
@@ -0,0 +1,187 @@
+package com.devrunner.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Durations of the phases of launching a project. Every phase is emitted as
+ * a {@link LaunchPhaseEvent} for Flight Recorder and also added to an
+ * in-memory log-scale histogram, so p50/p95 are available without a
+ * recording. Histograms keep counts only, so memory stays constant however
+ * many launches are timed.
+ */
+public class LaunchTimings {
+    /** A phase that has started; call {@link #end()} once when it completes. */
+    public final class Span {
+        private final String project;
+        private final String phase;
+        private final long startNanos = System.nanoTime();
+        private final LaunchPhaseEvent event = new LaunchPhaseEvent();
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        Span(String project, String phase) {
+            this.project = project;
+            this.phase = phase;
+            event.begin();
+        }
+
+        // Returns the phase's duration in milliseconds. Later calls are ignored and return -1,
+        // so a phase can be ended from wherever it is first seen to finish
+        public long end() {
+            return endAt(System.nanoTime());
+        }
+
+        // Ends the phase at an earlier System.nanoTime() that was observed, such as the last poll that saw it running
+        public long endAt(long endNanos) {
+            if (!ended.compareAndSet(false, true)) {
+                return -1;
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.project = project;
+                event.phase = phase;
+                event.commit();
+            }
+            long nanos = Math.max(0, endNanos - startNanos);
+            histogram(project, phase).record(nanos);
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        // Drops a phase that never finished, such as a build cut short, so it is neither recorded nor ended later
+        public void discard() {
+            ended.set(true);
+        }
+    }
+
+    /** Snapshot of one histogram, in milliseconds. */
+    public static final class Summary {
+        public final String project;
+        public final String phase;
+        public final long count;
+        public final double p50;
+        public final double p95;
+        public final double max;
+
+        Summary(String project, String phase, long count, double p50, double p95, double max) {
+            this.project = project;
+            this.phase = phase;
+            this.count = count;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.max = max;
+        }
+    }
+
+    /**
+     * Log-linear histogram of microseconds: each power of two is split into
+     * eight buckets, so a reported percentile is within about 6% of the true
+     * value.
+     */
+    static final class Histogram {
+        private static final int SUB_BUCKETS = 8;
+        private static final int OCTAVES = 42;
+
+        private final long[] counts = new long[OCTAVES * SUB_BUCKETS];
+        private long total;
+        private long minMicros = Long.MAX_VALUE;
+        private long maxMicros;
+
+        synchronized void record(long nanos) {
+            long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+            counts[bucket(micros)]++;
+            total++;
+            minMicros = Math.min(minMicros, micros);
+            maxMicros = Math.max(maxMicros, micros);
+        }
+
+        private static int bucket(long micros) {
+            if (micros < SUB_BUCKETS) {
+                // Below 8 microseconds every value gets its own bucket
+                return (int) micros;
+            }
+            int octave = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) ((micros >>> (octave - 3)) & (SUB_BUCKETS - 1));
+            return Math.min(OCTAVES * SUB_BUCKETS - 1, octave * SUB_BUCKETS + sub);
+        }
+
+        // Midpoint of the bucket's range
+        private static double bucketValue(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int octave = index / SUB_BUCKETS;
+            double width = Math.pow(2, octave - 3);
+            return Math.pow(2, octave) + (index % SUB_BUCKETS) * width + width / 2;
+        }
+
+        synchronized long count() {
+            return total;
+        }
+
+        synchronized double percentileMillis(double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile / 100.0 * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    double micros = Math.max(minMicros, Math.min(maxMicros, bucketValue(i)));
+                    return micros / 1000.0;
+                }
+            }
+            return maxMicros / 1000.0;
+        }
+
+        synchronized double maxMillis() {
+            return maxMicros / 1000.0;
+        }
+    }
+
+    // Sorted by "project/phase" so the view and export have a stable order
+    private final Map<String, Histogram> histograms = new ConcurrentSkipListMap<>();
+
+    public Span start(String project, String phase) {
+        return new Span(project, phase);
+    }
+
+    private Histogram histogram(String project, String phase) {
+        return histograms.computeIfAbsent(project + '/' + phase, key -> new Histogram());
+    }
+
+    public List<Summary> summaries() {
+        List<Summary> summaries = new ArrayList<>();
+        histograms.forEach((key, histogram) -> {
+            int slash = key.indexOf('/');
+            summaries.add(new Summary(key.substring(0, slash), key.substring(slash + 1), histogram.count(),
+                histogram.percentileMillis(50), histogram.percentileMillis(95), histogram.maxMillis()));
+        });
+        return summaries;
+    }
+
+    public JSONObject toJson() {
+        JSONArray phases = new JSONArray();
+        for (Summary summary : summaries()) {
+            JSONObject phase = new JSONObject();
+            phase.put("project", summary.project);
+            phase.put("phase", summary.phase);
+            phase.put("count", summary.count);
+            phase.put("p50Ms", summary.p50);
+            phase.put("p95Ms", summary.p95);
+            phase.put("maxMs", summary.max);
+            phases.put(phase);
+        }
+        JSONObject json = new JSONObject();
+        json.put("generatedAt", System.currentTimeMillis());
+        json.put("phases", phases);
+        return json;
+    }
+}
@@ -0,0 +1,394 @@
+package com.devrunner.app;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * Tags output lines in a single pass with a precompiled Aho-Corasick
+ * automaton. Matching is case-insensitive and skips ANSI escape sequences,
+ * so "Error", "ERROR" and a colourised "\u001B[31merror" all hit the same
+ * keyword. {@link #classify(CharSequence)} allocates nothing; the only
+ * allocating call is {@link #extractUrl(CharSequence)}, which callers make
+ * once a line has already been tagged {@link #URL}.
+ *
+ * Each rule is a keyword, the tags it adds and optional "unless" keywords
+ * that veto it when they appear anywhere in the same line. Exclude keywords
+ * veto every ERROR, WARNING and NOTIFY rule at once. A classifier holds at
+ * most 64 distinct keywords.
+ */
+public final class LineClassifier {
+    public static final int ERROR = 1;
+    public static final int WARNING = 1 << 1;
+    public static final int URL = 1 << 2;
+    public static final int SUPPRESSED = 1 << 3;
+    // The line should raise the project's error dialog
+    public static final int NOTIFY = 1 << 4;
+
+    private static final int EXCLUDABLE = ERROR | WARNING | NOTIFY;
+    private static final int MAX_KEYWORDS = 64;
+
+    // Dense DFA over a compressed alphabet; class 0 is "any other char".
+    // Rows are padded to a power of two so a state is stored as its row
+    // offset and each step is one OR plus one array load.
+    private final byte[] asciiClass;
+    private final char[] otherChars;
+    private final int[] otherClass;
+    private final int alphabetSize;
+    private final int shift;
+    private final int[] table;
+    private final long[] outputs;
+
+    private final long[] ruleKeyword;
+    private final long[] ruleVeto;
+    private final int[] ruleTags;
+    private final int possibleTags;
+
+    private LineClassifier(Builder builder) {
+        List<String> keywords = builder.keywords;
+
+        // Map every distinct pattern char to a small alphabet index
+        TreeSet<Character> chars = new TreeSet<>();
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                chars.add(keyword.charAt(i));
+            }
+        }
+        asciiClass = new byte[128];
+        List<Character> others = new ArrayList<>();
+        int next = 1;
+        Map<Character, Integer> classes = new HashMap<>();
+        for (char c : chars) {
+            classes.put(c, next);
+            if (c < 128) {
+                asciiClass[c] = (byte) next;
+                if (c >= 'a' && c <= 'z') {
+                    asciiClass[c - 'a' + 'A'] = (byte) next;
+                }
+            } else {
+                others.add(c);
+            }
+            next++;
+        }
+        if (next > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many distinct characters in output rules");
+        }
+        alphabetSize = next;
+        otherChars = new char[others.size()];
+        otherClass = new int[others.size()];
+        for (int i = 0; i < others.size(); i++) {
+            otherChars[i] = others.get(i);
+            otherClass[i] = classes.get(others.get(i));
+        }
+
+        // Build the trie
+        List<int[]> gotoTable = new ArrayList<>();
+        List<Long> out = new ArrayList<>();
+        gotoTable.add(newRow());
+        out.add(0L);
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int symbol = classes.get(keyword.charAt(i));
+                int target = gotoTable.get(state)[symbol];
+                if (target <= 0) {
+                    target = gotoTable.size();
+                    gotoTable.add(newRow());
+                    out.add(0L);
+                    gotoTable.get(state)[symbol] = target;
+                }
+                state = target;
+            }
+            out.set(state, out.get(state) | (1L << k));
+        }
+
+        // Breadth-first failure links, folded straight into a complete DFA
+        int states = gotoTable.size();
+        int[] transitions = new int[states * alphabetSize];
+        outputs = new long[states];
+        int[] fail = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int target = gotoTable.get(0)[symbol];
+            if (target > 0) {
+                transitions[symbol] = target;
+                fail[target] = 0;
+                queue.add(target);
+            }
+        }
+        outputs[0] = out.get(0);
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            outputs[state] = out.get(state) | outputs[fail[state]];
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int target = gotoTable.get(state)[symbol];
+                if (target > 0) {
+                    fail[target] = transitions[fail[state] * alphabetSize + symbol];
+                    transitions[state * alphabetSize + symbol] = target;
+                    queue.add(target);
+                } else {
+                    transitions[state * alphabetSize + symbol] =
+                        transitions[fail[state] * alphabetSize + symbol];
+                }
+            }
+        }
+
+        shift = 32 - Integer.numberOfLeadingZeros(Math.max(1, alphabetSize - 1));
+        table = new int[states << shift];
+        for (int state = 0; state < states; state++) {
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                table[(state << shift) | symbol] = transitions[state * alphabetSize + symbol] << shift;
+            }
+        }
+
+        int rules = builder.rules.size();
+        ruleKeyword = new long[rules];
+        ruleVeto = new long[rules];
+        ruleTags = new int[rules];
+        int tags = 0;
+        for (int r = 0; r < rules; r++) {
+            Rule rule = builder.rules.get(r);
+            ruleKeyword[r] = rule.keyword;
+            ruleVeto[r] = (rule.tags & EXCLUDABLE) != 0 ? rule.veto | builder.excludes : rule.veto;
+            ruleTags[r] = rule.tags;
+            tags |= rule.tags;
+        }
+        possibleTags = tags;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Built-in rules plus the project type's own; OutputRules layers config rules on top
+    public static Builder defaults(String projectType) {
+        Builder builder = builder()
+            .rule("error", ERROR | NOTIFY, "error after display")
+            // "SDL Error after display: ..." is still an error unless it is the touch warning
+            .rule("sdl error after display", ERROR | NOTIFY, "touch device")
+            .rule("exception", ERROR | NOTIFY)
+            .rule("failed", ERROR | NOTIFY)
+            .rule("not found", ERROR | NOTIFY, "touch device")
+            .rule("warn", WARNING);
+        LaunchPlan plan = ProjectTypes.plan(projectType);
+        if (plan != null) {
+            plan.getType().addOutputRules(builder);
+        }
+        return builder;
+    }
+
+    public boolean canTag(int tag) {
+        return (possibleTags & tag) != 0;
+    }
+
+    // Returns the OR of all tags whose rules fire on this line
+    public int classify(CharSequence line) {
+        long found = scan(line);
+        if (found == 0) {
+            return 0;
+        }
+        int tags = 0;
+        for (int r = 0; r < ruleTags.length; r++) {
+            if ((found & ruleKeyword[r]) != 0 && (found & ruleVeto[r]) == 0) {
+                tags |= ruleTags[r];
+            }
+        }
+        return tags;
+    }
+
+    private long scan(CharSequence line) {
+        long found = 0;
+        int offset = 0;
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            int symbol;
+            if (c < 128) {
+                if (c == '\u001B') {
+                    i = skipEscape(line, i);
+                    continue;
+                }
+                symbol = asciiClass[c];
+            } else {
+                symbol = otherSymbol(c);
+            }
+            offset = table[offset | symbol];
+            found |= outputs[offset >>> shift];
+        }
+        return found;
+    }
+
+    private int otherSymbol(char c) {
+        if (otherChars.length == 0) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(otherChars, Character.toLowerCase(c));
+        return index >= 0 ? otherClass[index] : 0;
+    }
+
+    // Returns the index of the last char of the CSI sequence starting at i
+    private static int skipEscape(CharSequence line, int i) {
+        if (i + 1 >= line.length() || line.charAt(i + 1) != '[') {
+            return i;
+        }
+        int j = i + 2;
+        while (j < line.length()) {
+            char c = line.charAt(j);
+            if (c >= '@' && c <= '~') {
+                return j;
+            }
+            j++;
+        }
+        return j;
+    }
+
+    /**
+     * Pulls a dev-server URL out of a line tagged {@link #URL}: the first
+     * http(s) URL after "Local:", or otherwise the first one pointing at
+     * localhost or 127.0.0.1. ANSI sequences inside the URL are dropped.
+     */
+    public static String extractUrl(CharSequence line) {
+        String local = urlAt(line, indexOfIgnoreCase(line, "local:", 0), true);
+        if (local != null) {
+            return local;
+        }
+        int from = 0;
+        while (true) {
+            int start = indexOfIgnoreCase(line, "http", from);
+            if (start < 0) {
+                return null;
+            }
+            String url = urlAt(line, start, false);
+            if (url != null) {
+                String rest = url.substring(url.indexOf("://") + 3);
+                if (rest.startsWith("localhost") || rest.startsWith("127.0.0.1")) {
+                    return url;
+                }
+            }
+            from = start + 4;
+        }
+    }
+
+    private static String urlAt(CharSequence line, int start, boolean afterLabel) {
+        if (start < 0) {
+            return null;
+        }
+        int i = start;
+        if (afterLabel) {
+            i += "local:".length();
+            while (i < line.length()) {
+                char c = line.charAt(i);
+                if (c == '\u001B') {
+                    i = skipEscape(line, i) + 1;
+                } else if (Character.isWhitespace(c)) {
+                    i++;
+                } else {
+                    break;
+                }
+            }
+        }
+        StringBuilder url = new StringBuilder();
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == '\u001B') {
+                i = skipEscape(line, i) + 1;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                break;
+            }
+            url.append(c);
+            i++;
+        }
+        String text = url.toString();
+        String lower = text.toLowerCase();
+        if (!lower.startsWith("http://") && !lower.startsWith("https://")) {
+            return null;
+        }
+        return text.length() > lower.indexOf("://") + 3 ? text : null;
+    }
+
+    private static int indexOfIgnoreCase(CharSequence line, String needle, int from) {
+        int last = line.length() - needle.length();
+        outer:
+        for (int i = Math.max(0, from); i <= last; i++) {
+            for (int j = 0; j < needle.length(); j++) {
+                if (Character.toLowerCase(line.charAt(i + j)) != needle.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static final class Rule {
+        final long keyword;
+        final long veto;
+        final int tags;
+
+        Rule(long keyword, long veto, int tags) {
+            this.keyword = keyword;
+            this.veto = veto;
+            this.tags = tags;
+        }
+    }
+
+    public static final class Builder {
+        private final List<String> keywords = new ArrayList<>();
+        private final Map<String, Integer> keywordIds = new LinkedHashMap<>();
+        private final List<Rule> rules = new ArrayList<>();
+        private long excludes;
+
+        private Builder() {
+        }
+
+        public Builder exclude(String keyword) {
+            excludes |= 1L << keywordId(keyword);
+            return this;
+        }
+
+        public Builder rule(String keyword, int tags, String... unless) {
+            long veto = 0;
+            for (String word : unless) {
+                veto |= 1L << keywordId(word);
+            }
+            rules.add(new Rule(1L << keywordId(keyword), veto, tags));
+            return this;
+        }
+
+        private int keywordId(String keyword) {
+            String folded = keyword.toLowerCase();
+            if (folded.isEmpty()) {
+                throw new IllegalArgumentException("Empty output rule keyword");
+            }
+            Integer id = keywordIds.get(folded);
+            if (id == null) {
+                if (keywords.size() == MAX_KEYWORDS) {
+                    throw new IllegalArgumentException("At most " + MAX_KEYWORDS + " output rule keywords are supported");
+                }
+                id = keywords.size();
+                keywords.add(folded);
+                keywordIds.put(folded, id);
+            }
+            return id;
+        }
+
+        public LineClassifier build() {
+            return new LineClassifier(this);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.devrunner.app;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batches output lines from a process reader thread and hands them to a
+ * delivery executor, such as the Swing EDT, in a single hop per flush
+ * interval.
+ *
+ * Every line is appended to the {@link LogStore} as it arrives, so the store
+ * is always complete. The UI feed is lossy: while a batch is still waiting
+ * to be delivered no further batch is posted, and if more than
+ * maxPending lines pile up in the meantime the oldest pending lines are
+ * dropped and only counted. The next batch reports that count so viewers
+ * can show the gap and read the missing lines back from the store.
+ */
+public class LogPipeline implements AutoCloseable {
+    public static final int DEFAULT_FLUSH_INTERVAL_MS = 16;
+    public static final int DEFAULT_BATCH_LINES = 1024;
+    public static final int DEFAULT_MAX_PENDING = 4096;
+
+    // One shared timer thread for all pipelines; flushes are tiny
+    private static final ScheduledExecutorService FLUSHER =
+        Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "log-pipeline-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    public interface Listener {
+        // Always invoked through the pipeline's delivery executor
+        void onBatch(Batch batch);
+    }
+
+    public static final class Batch {
+        public final String source;
+        public final List<String> lines;
+        public final int dropped;
+        public final String url;
+        public final boolean error;
+        public final boolean closed;
+
+        Batch(String source, List<String> lines, int dropped, String url, boolean error, boolean closed) {
+            this.source = source;
+            this.lines = lines;
+            this.dropped = dropped;
+            this.url = url;
+            this.error = error;
+            this.closed = closed;
+        }
+    }
+
+    private final String source;
+    private final LogStore store;
+    private final Listener listener;
+    private final Executor delivery;
+    private final long flushIntervalMs;
+    private final int batchLines;
+    private final int maxPending;
+    private final boolean echo;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<String> pending = new ArrayDeque<>();
+    private int dropped;
+    private String url;
+    private boolean error;
+    private boolean closed;
+    private boolean closeDelivered;
+    // The flush waiting on the timer, and whether it is due at once rather than after the interval
+    private ScheduledFuture<?> scheduled;
+    private boolean scheduledNow;
+    private boolean inFlight;
+
+    public LogPipeline(String source, LogStore store, Listener listener, Executor delivery,
+                       long flushIntervalMs, int batchLines, int maxPending, boolean echo) {
+        this.source = source;
+        this.store = store;
+        this.listener = listener;
+        this.delivery = delivery;
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.batchLines = Math.max(1, batchLines);
+        this.maxPending = Math.max(this.batchLines, maxPending);
+        this.echo = echo;
+    }
+
+    public LogStore getStore() {
+        return store;
+    }
+
+    public void publish(String line) {
+        store.append(line);
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            pending.addLast(line);
+            if (pending.size() > maxPending) {
+                pending.removeFirst();
+                dropped++;
+            }
+            scheduleFlush(pending.size() >= batchLines ? 0 : flushIntervalMs);
+        }
+    }
+
+    public void publishUrl(String detectedUrl) {
+        synchronized (lock) {
+            url = detectedUrl;
+            scheduleFlush(0);
+        }
+    }
+
+    public void markError() {
+        synchronized (lock) {
+            error = true;
+            scheduleFlush(0);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            scheduleFlush(0);
+        }
+    }
+
+    // Caller holds lock. A flush due at once replaces a delayed one that has not started yet,
+    // so a full batch or an error is not held back for the rest of the interval
+    private void scheduleFlush(long delayMs) {
+        if (inFlight) {
+            return;
+        }
+        if (scheduled != null && (scheduledNow || delayMs > 0 || !scheduled.cancel(false))) {
+            return;
+        }
+        scheduledNow = delayMs == 0;
+        scheduled = FLUSHER.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        Batch batch;
+        synchronized (lock) {
+            scheduled = null;
+            if (inFlight || closeDelivered) {
+                return;
+            }
+            if (pending.isEmpty() && dropped == 0 && url == null && !error && !closed) {
+                return;
+            }
+            List<String> lines = pending.isEmpty()
+                ? Collections.emptyList()
+                : new ArrayList<>(pending);
+            pending.clear();
+            batch = new Batch(source, lines, dropped, url, error, closed);
+            dropped = 0;
+            url = null;
+            error = false;
+            closeDelivered = closed;
+            inFlight = true;
+        }
+
+        if (echo && !batch.lines.isEmpty()) {
+            // One write per batch instead of one println per line
+            StringBuilder out = new StringBuilder(batch.lines.size() * 64);
+            for (String line : batch.lines) {
+                out.append(source).append(": ").append(line).append('\n');
+            }
+            System.out.print(out);
+        }
+
+        delivery.execute(() -> {
+            try {
+                listener.onBatch(batch);
+            } finally {
+                synchronized (lock) {
+                    inFlight = false;
+                    if (!closeDelivered && (!pending.isEmpty() || dropped > 0
+                            || url != null || error || closed)) {
+                        scheduleFlush(flushIntervalMs);
+                    }
+                }
+            }
+        });
+    }
+}
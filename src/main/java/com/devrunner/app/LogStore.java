@@ -0,0 +1,254 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Fixed-size ring buffer of output lines for a single process. Lines are
+ * addressed by a monotonically increasing sequence number so viewers can
+ * read a window without copying the whole history. Lines evicted from the
+ * ring can optionally be spilled to memory-mapped segment files on disk.
+ */
+public class LogStore implements AutoCloseable {
+    // Rough per-line overhead of a String plus its slot in the ring
+    private static final int LINE_OVERHEAD = 48;
+
+    public static final int DEFAULT_MAX_LINES = 10_000;
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+    public static final int DEFAULT_SEGMENT_BYTES = 8 * 1024 * 1024;
+    public static final int DEFAULT_MAX_SEGMENTS = 4;
+
+    private final String name;
+    private final int maxLines;
+    private final long maxBytes;
+    private final String[] lines;
+    private final long[] timestamps;
+
+    // Sequence number of the oldest retained line and the number retained
+    private long firstSeq;
+    private int size;
+    private long bytes;
+
+    private final Spill spill;
+
+    public LogStore(String name, int maxLines, long maxBytes, Path spillDir) {
+        this.name = name;
+        this.maxLines = Math.max(1, maxLines);
+        this.maxBytes = Math.max(1024, maxBytes);
+        this.lines = new String[this.maxLines];
+        this.timestamps = new long[this.maxLines];
+        Spill created = null;
+        if (spillDir != null) {
+            try {
+                created = new Spill(spillDir, name, DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_SEGMENTS);
+            } catch (IOException e) {
+                // History is optional; keep the in-memory ring working
+                e.printStackTrace();
+            }
+        }
+        this.spill = created;
+    }
+
+    public LogStore(String name) {
+        this(name, DEFAULT_MAX_LINES, DEFAULT_MAX_BYTES, null);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized void append(String line) {
+        long cost = cost(line);
+        while (size > 0 && (size == maxLines || bytes + cost > maxBytes)) {
+            evictOldest();
+        }
+        int slot = slot(firstSeq + size);
+        lines[slot] = line;
+        timestamps[slot] = System.currentTimeMillis();
+        size++;
+        bytes += cost;
+    }
+
+    private void evictOldest() {
+        int slot = slot(firstSeq);
+        String line = lines[slot];
+        if (spill != null) {
+            spill.write(line);
+        }
+        lines[slot] = null;
+        bytes -= cost(line);
+        firstSeq++;
+        size--;
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % maxLines);
+    }
+
+    private static long cost(String line) {
+        return (long) line.length() * 2 + LINE_OVERHEAD;
+    }
+
+    // Sequence number of the oldest line still held in memory
+    public synchronized long firstSeq() {
+        return firstSeq;
+    }
+
+    // Sequence number one past the newest line, i.e. total lines ever appended
+    public synchronized long endSeq() {
+        return firstSeq + size;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long retainedBytes() {
+        return bytes;
+    }
+
+    // Returns the line at seq, or null if it has been evicted or not yet written
+    public synchronized String get(long seq) {
+        if (seq < firstSeq || seq >= firstSeq + size) {
+            return null;
+        }
+        return lines[slot(seq)];
+    }
+
+    public synchronized long timestamp(long seq) {
+        if (seq < firstSeq || seq >= firstSeq + size) {
+            return 0;
+        }
+        return timestamps[slot(seq)];
+    }
+
+    // Visits retained lines from seq onwards while holding the lock once
+    public synchronized void forEach(long fromSeq, Consumer<String> consumer) {
+        long start = Math.max(fromSeq, firstSeq);
+        long end = firstSeq + size;
+        for (long seq = start; seq < end; seq++) {
+            consumer.accept(lines[slot(seq)]);
+        }
+    }
+
+    // Appends the newest maxCount lines to out, one per line
+    public synchronized void appendTail(StringBuilder out, int maxCount) {
+        long end = firstSeq + size;
+        long start = Math.max(firstSeq, end - maxCount);
+        if (start > firstSeq || (spill != null && spill.hasData())) {
+            out.append("... ").append(start).append(" earlier lines not shown ...\n");
+        }
+        for (long seq = start; seq < end; seq++) {
+            out.append(lines[slot(seq)]).append('\n');
+        }
+    }
+
+    public Path spillDirectory() {
+        return spill != null ? spill.dir : null;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (spill != null) {
+            spill.close();
+        }
+    }
+
+    /**
+     * Rolling set of fixed-size memory-mapped segment files. When a segment
+     * fills up a new one is mapped and the oldest beyond maxSegments is deleted.
+     */
+    private static final class Spill {
+        private final Path dir;
+        private final String prefix;
+        private final int segmentBytes;
+        private final int maxSegments;
+        private int segmentIndex = -1;
+        private FileChannel channel;
+        private MappedByteBuffer buffer;
+        private boolean hasData;
+
+        Spill(Path dir, String name, int segmentBytes, int maxSegments) throws IOException {
+            this.dir = dir;
+            this.prefix = name.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + System.currentTimeMillis();
+            this.segmentBytes = segmentBytes;
+            this.maxSegments = maxSegments;
+            Files.createDirectories(dir);
+            roll();
+        }
+
+        boolean hasData() {
+            return hasData;
+        }
+
+        void write(String line) {
+            if (buffer == null) {
+                return;
+            }
+            byte[] data = (line + "\n").getBytes(StandardCharsets.UTF_8);
+            int offset = 0;
+            try {
+                while (offset < data.length) {
+                    if (!buffer.hasRemaining()) {
+                        roll();
+                    }
+                    int chunk = Math.min(buffer.remaining(), data.length - offset);
+                    buffer.put(data, offset, chunk);
+                    offset += chunk;
+                }
+                hasData = true;
+            } catch (IOException e) {
+                e.printStackTrace();
+                close();
+            }
+        }
+
+        private void roll() throws IOException {
+            closeSegment();
+            segmentIndex++;
+            Path segment = segmentPath(segmentIndex);
+            channel = FileChannel.open(segment,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            int expired = segmentIndex - maxSegments;
+            if (expired >= 0) {
+                try {
+                    Files.deleteIfExists(segmentPath(expired));
+                } catch (IOException e) {
+                    // Still mapped elsewhere (e.g. on Windows); leave it behind
+                }
+            }
+        }
+
+        private Path segmentPath(int index) {
+            return dir.resolve(prefix + "." + index + ".seg");
+        }
+
+        private void closeSegment() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                // Segments are preallocated, so the unused tail stays NUL-filled
+                buffer.force();
+                buffer = null;
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            channel = null;
+        }
+
+        void close() {
+            closeSegment();
+            buffer = null;
+        }
+    }
+}
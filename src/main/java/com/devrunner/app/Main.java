@@ -0,0 +1,91 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+
+/**
+ * Entry point. Without arguments it opens the window; the headless, daemon
+ * and client modes never load AWT, so they also work over SSH and in CI.
+ */
+public final class Main {
+    private Main() {
+    }
+
+    static void usage() {
+        System.err.println("Usage: java -jar jarDevRunner.jar");
+        System.err.println("       java -jar jarDevRunner.jar --headless run <project>... [--watch] [--instances n]");
+        System.err.println("       java -jar jarDevRunner.jar --headless group <name> [--watch]");
+        System.err.println("       java -jar jarDevRunner.jar --daemon");
+        System.err.println("       java -jar jarDevRunner.jar --send <command>...");
+        System.err.println("       java -jar jarDevRunner.jar --search [--project p] [--runs n] [--since 2h] <words>...");
+        System.err.println("       java -jar jarDevRunner.jar --discover [root]");
+        System.err.println("Projects: " + String.join(", ", RunnerCore.PROJECTS));
+    }
+
+    // Searches recorded runs directly, without a daemon
+    private static int search(String[] args) {
+        try {
+            SessionLog.Settings settings = SessionLog.Settings.fromConfig(RunnerCore.readConfigAsync().join());
+            SessionSearch.Result result = SessionSearch.search(Arrays.asList(args), settings);
+            result.matches.forEach(System.out::println);
+            System.err.println(result.summary());
+            return result.matches.isEmpty() ? 1 : 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            usage();
+            return 2;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Search failed: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    // Lists the runnable projects under the configured (or given) workspace root
+    private static int discover(String[] args) {
+        JSONObject config = RunnerCore.readConfigAsync().join();
+        if (args.length > 0) {
+            JSONObject section = config.optJSONObject("discovery");
+            config.put("discovery", (section != null ? section : new JSONObject()).put("root", args[0]));
+        }
+        WorkspaceIndex.Settings settings = WorkspaceIndex.Settings.fromConfig(config);
+        long start = System.nanoTime();
+        List<WorkspaceIndex.Project> projects = WorkspaceIndex.scan(settings);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        projects.forEach(project -> System.out.println(project.getType() + "\t" + project.getPath()));
+        System.err.println(projects.size() + " projects under " + settings.getRoot().toAbsolutePath().normalize()
+            + " in " + millis + " ms");
+        return projects.isEmpty() ? 1 : 0;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            DevRunner.start();
+            return;
+        }
+        String[] rest = Arrays.copyOfRange(args, 1, args.length);
+        switch (args[0]) {
+            case "--headless":
+                System.exit(HeadlessRunner.run(rest));
+                break;
+            case "--daemon":
+                System.exit(DaemonServer.serve());
+                break;
+            case "--send":
+                System.exit(DaemonServer.send(rest));
+                break;
+            case "--search":
+                System.exit(search(rest));
+                break;
+            case "--discover":
+                System.exit(discover(rest));
+                break;
+            default:
+                usage();
+                System.exit(2);
+        }
+    }
+}
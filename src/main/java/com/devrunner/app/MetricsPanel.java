@@ -0,0 +1,146 @@
+package com.devrunner.app;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GridLayout;
+import java.awt.RenderingHints;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.BorderFactory;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+
+/**
+ * One row per project with CPU, memory and thread sparklines drawn from
+ * {@link ProcessMetrics} series. The sparklines read the ring buffers while
+ * painting, so {@link #refresh()} only has to request a repaint. All
+ * methods must be called on the EDT.
+ */
+public class MetricsPanel extends JPanel {
+    private static final Color CPU_COLOR = new Color(0xD9534F);
+    private static final Color RSS_COLOR = new Color(0x337AB7);
+    private static final Color THREADS_COLOR = new Color(0x5CB85C);
+
+    private enum Metric {
+        CPU, RSS, THREADS
+    }
+
+    private final List<Sparkline> sparklines = new ArrayList<>();
+    private final List<JLabel> nameLabels = new ArrayList<>();
+    private final List<ProcessMetrics.Series> labelSeries = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+
+    public MetricsPanel(ProcessMetrics metrics, String... projects) {
+        super(new GridLayout(projects.length, 4, 8, 2));
+        setBorder(BorderFactory.createTitledBorder("Resources"));
+        for (String project : projects) {
+            ProcessMetrics.Series series = metrics.series(project);
+            String name = project.substring(0, 1).toUpperCase() + project.substring(1);
+            JLabel nameLabel = new JLabel(name);
+            nameLabels.add(nameLabel);
+            labelSeries.add(series);
+            names.add(name);
+            add(nameLabel);
+            for (Metric metric : Metric.values()) {
+                Sparkline sparkline = new Sparkline(series, metric);
+                sparklines.add(sparkline);
+                add(sparkline);
+            }
+        }
+    }
+
+    public void refresh() {
+        // The cores each running project may use, read back from the process itself
+        for (int i = 0; i < nameLabels.size(); i++) {
+            String cpus = labelSeries.get(i).cpus();
+            String text = cpus != null ? names.get(i) + " (CPUs " + cpus + ")" : names.get(i);
+            if (!text.equals(nameLabels.get(i).getText())) {
+                nameLabels.get(i).setText(text);
+            }
+        }
+        sparklines.forEach(JComponent::repaint);
+    }
+
+    private static final class Sparkline extends JComponent {
+        private final ProcessMetrics.Series series;
+        private final Metric metric;
+
+        Sparkline(ProcessMetrics.Series series, Metric metric) {
+            this.series = series;
+            this.metric = metric;
+            setPreferredSize(new Dimension(160, 22));
+            setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        }
+
+        private double value(int i) {
+            switch (metric) {
+                case CPU:
+                    return series.cpuPercent(i);
+                case RSS:
+                    return series.rssBytes(i);
+                default:
+                    return series.threads(i);
+            }
+        }
+
+        private String label(double latest) {
+            if (latest < 0) {
+                return metric == Metric.RSS ? "RSS n/a" : "threads n/a";
+            }
+            switch (metric) {
+                case CPU:
+                    return String.format("%.0f%% CPU", latest);
+                case RSS:
+                    return String.format("%.0f MB", latest / (1024 * 1024));
+                default:
+                    return (long) latest + " threads";
+            }
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            try {
+                int width = getWidth();
+                int height = getHeight();
+                g2.setColor(getBackground());
+                g2.fillRect(0, 0, width, height);
+
+                int size = series.size();
+                if (size == 0) {
+                    g2.setColor(Color.GRAY);
+                    g2.drawString("-", 2, height - 6);
+                    return;
+                }
+                // CPU is scaled to at least one full core so idle noise stays flat
+                double max = metric == Metric.CPU ? 100 : 1;
+                for (int i = 0; i < size; i++) {
+                    max = Math.max(max, value(i));
+                }
+
+                Color color = metric == Metric.CPU ? CPU_COLOR : metric == Metric.RSS ? RSS_COLOR : THREADS_COLOR;
+                g2.setColor(color);
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                int capacity = series.capacity();
+                int[] xs = new int[size];
+                int[] ys = new int[size];
+                for (int i = 0; i < size; i++) {
+                    // Newest sample at the right edge
+                    xs[i] = width - 1 - (int) ((long) (size - 1 - i) * (width - 1) / Math.max(1, capacity - 1));
+                    ys[i] = height - 2 - (int) (Math.max(0, value(i)) / max * (height - 4));
+                }
+                g2.drawPolyline(xs, ys, size);
+
+                g2.setColor(getForeground());
+                g2.drawString(label(value(size - 1)), 2, g2.getFontMetrics().getAscent());
+            } finally {
+                g2.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.json.JSONObject;
+
+/**
+ * Speeds up the C and C++ builds that run scripts start, without touching
+ * the scripts: the environment gets one build job per core for CMake and
+ * make, ccache as the compiler launcher, and Ninja as the CMake generator,
+ * each only when the tool is installed. After the spawn the process tree
+ * is polled until the build tools have finished, which gives the build
+ * duration, and ccache's per-launch statistics log gives the hit rate.
+ */
+final class NativeBuild {
+    // Processes that belong to a build rather than to the program it produces
+    private static final Set<String> BUILD_TOOLS = Set.of(
+        "cmake", "make", "gmake", "ninja", "ccache", "cc", "c++", "gcc", "g++", "clang", "clang++",
+        "cc1", "cc1plus", "as", "ld", "ld.lld", "ld.gold", "lld", "collect2", "cl", "link", "msbuild");
+    private static final long POLL_MS = 100;
+    // A script that has not started a build tool by then is taken to run a prebuilt program
+    private static final long START_TIMEOUT_NANOS = 5_000_000_000L;
+    // Build tools must stay gone this long, so the gap between configuring and building does not end the build
+    private static final long QUIET_NANOS = 300_000_000L;
+
+    /** Optional "nativeBuild" section: { "enabled": true, "jobs": 8, "ccache": true, "ninja": true } */
+    static final class Settings {
+        final boolean enabled;
+        // 0 for one job per core the project may use
+        final int jobs;
+        final boolean ccache;
+        final boolean ninja;
+
+        private Settings(boolean enabled, int jobs, boolean ccache, boolean ninja) {
+            this.enabled = enabled;
+            this.jobs = jobs;
+            this.ccache = ccache;
+            this.ninja = ninja;
+        }
+
+        static Settings fromConfig(JSONObject config) {
+            JSONObject section = config != null ? config.optJSONObject("nativeBuild") : null;
+            if (section == null) {
+                section = new JSONObject();
+            }
+            int jobs = section.optInt("jobs", 0);
+            if (jobs < 0) {
+                throw new IllegalArgumentException("nativeBuild.jobs must be 0 (one per core) or a positive count");
+            }
+            return new Settings(section.optBoolean("enabled", true), jobs,
+                section.optBoolean("ccache", true), section.optBoolean("ninja", true));
+        }
+    }
+
+    /** How one build went; the hit counts are -1 when ccache did not run or kept no log. */
+    static final class Result {
+        final long millis;
+        final int hits;
+        final int misses;
+
+        Result(long millis, int hits, int misses) {
+            this.millis = millis;
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        @Override
+        public String toString() {
+            String built = String.format("built in %.1f s", millis / 1000.0);
+            int total = hits + misses;
+            if (hits < 0 || total == 0) {
+                return built;
+            }
+            return built + ", ccache " + hits + "/" + total + " hits (" + Math.round(hits * 100.0 / total) + "%)";
+        }
+    }
+
+    final int jobs;
+    // What was set up and what was left out, for the launch log
+    final List<String> applied = new ArrayList<>();
+    final List<String> skipped = new ArrayList<>();
+    // ccache appends one entry per compilation here; null without ccache
+    private Path statsLog;
+
+    private NativeBuild(int jobs) {
+        this.jobs = jobs;
+    }
+
+    /**
+     * Adds the build settings to env. Variables the user has already set
+     * are left alone. cores is the number of CPUs the project may run on.
+     */
+    static NativeBuild prepare(Settings settings, Path projectPath, Map<String, String> env,
+                               ToolchainIndex tools, int cores) throws IOException {
+        NativeBuild build = new NativeBuild(settings.jobs > 0 ? settings.jobs : Math.max(1, cores));
+        String jobs = Integer.toString(build.jobs);
+        if (env.putIfAbsent("CMAKE_BUILD_PARALLEL_LEVEL", jobs) == null) {
+            build.applied.add(jobs + " parallel jobs");
+        }
+        String makeFlags = env.getOrDefault("MAKEFLAGS", "");
+        // GNU make keeps the single-letter flags of its own command line as a leading word such as "ij4"
+        if (!makeFlags.contains("-j") && !makeFlags.matches("[a-zA-Z]*j.*")) {
+            env.put("MAKEFLAGS", ("-j" + jobs + " " + makeFlags).trim());
+        }
+
+        boolean cmake = Files.exists(projectPath.resolve("CMakeLists.txt"));
+        if (settings.ccache) {
+            ToolchainIndex.Tool ccache = tools.find("ccache");
+            if (ccache == null) {
+                build.skipped.add("ccache (not installed)");
+            } else {
+                if (cmake) {
+                    // Read by CMake 3.17+ when a build directory is first configured
+                    env.putIfAbsent("CMAKE_C_COMPILER_LAUNCHER", ccache.getPath());
+                    env.putIfAbsent("CMAKE_CXX_COMPILER_LAUNCHER", ccache.getPath());
+                } else {
+                    // Plain makefiles call $(CC) and $(CXX); these are make's own defaults behind ccache
+                    env.putIfAbsent("CC", ccache.getPath() + " cc");
+                    env.putIfAbsent("CXX", ccache.getPath() + " c++");
+                }
+                // Paths under the project are hashed relative to it, so copies of a lesson share the cache
+                env.putIfAbsent("CCACHE_BASEDIR", projectPath.toString());
+                build.statsLog = Files.createTempFile("devrunner-ccache-", ".log");
+                env.put("CCACHE_STATSLOG", build.statsLog.toString());
+                build.applied.add("ccache");
+            }
+        }
+
+        if (settings.ninja && cmake && !env.containsKey("CMAKE_GENERATOR")) {
+            String existing = configuredGenerator(projectPath);
+            if (tools.find("ninja") == null) {
+                build.skipped.add("Ninja (not installed)");
+            } else if (existing != null && !existing.equals("Ninja")) {
+                // CMake refuses to switch the generator of an existing build directory
+                build.skipped.add("Ninja (the build directory was configured for " + existing
+                    + "; delete it to switch)");
+            } else {
+                // Read by CMake 3.15+ when a build directory is first configured; ninja is on the search path
+                env.put("CMAKE_GENERATOR", "Ninja");
+                build.applied.add("Ninja");
+            }
+        }
+        return build;
+    }
+
+    // The generator recorded in a CMakeCache.txt a few levels under the project, or null if none is configured
+    private static String configuredGenerator(Path projectPath) throws IOException {
+        List<Path> caches;
+        try (Stream<Path> files = Files.find(projectPath, 3,
+                (path, attributes) -> path.getFileName().toString().equals("CMakeCache.txt"))) {
+            caches = files.collect(Collectors.toList());
+        }
+        for (Path cache : caches) {
+            for (String line : Files.readAllLines(cache, StandardCharsets.UTF_8)) {
+                if (line.startsWith("CMAKE_GENERATOR:INTERNAL=")) {
+                    return line.substring(line.indexOf('=') + 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Blocks until the build tools under root have finished, or the process
+     * has exited, and returns System.nanoTime() of the last poll that saw
+     * one running; -1 if no build ran, or if the process exited while the
+     * build was still running and so never finished it.
+     */
+    long awaitBuild(ProcessHandle root, long spawnNanos) throws InterruptedException {
+        long lastSeen = -1;
+        boolean building = false;
+        while (true) {
+            long now = System.nanoTime();
+            if (root.descendants().anyMatch(NativeBuild::isBuildTool)) {
+                lastSeen = now;
+                building = true;
+            } else if (!root.isAlive()) {
+                // The tools of a dead root are no longer its descendants, so the previous poll tells
+                return building ? -1 : lastSeen;
+            } else if (lastSeen < 0 ? now - spawnNanos > START_TIMEOUT_NANOS : now - lastSeen >= QUIET_NANOS) {
+                return lastSeen;
+            } else {
+                building = false;
+            }
+            Thread.sleep(POLL_MS);
+        }
+    }
+
+    private static boolean isBuildTool(ProcessHandle process) {
+        String command = process.info().command().orElse(null);
+        if (command == null) {
+            return false;
+        }
+        String name = Paths.get(command).getFileName().toString().toLowerCase();
+        if (name.endsWith(".exe")) {
+            name = name.substring(0, name.length() - 4);
+        }
+        // Versioned and cross-compiler names such as g++-12 or x86_64-w64-mingw32-gcc
+        name = name.replaceFirst("-[0-9][0-9.]*$", "");
+        return BUILD_TOOLS.contains(name) || BUILD_TOOLS.contains(name.substring(name.lastIndexOf('-') + 1));
+    }
+
+    /** The build's duration with the hit rate from ccache's log, which is deleted. */
+    Result result(long millis) {
+        int hits = -1;
+        int misses = 0;
+        if (statsLog != null) {
+            try {
+                hits = 0;
+                // One "# <source>" line per compilation, followed by the counters it bumped
+                List<String> lines = new ArrayList<>(Files.readAllLines(statsLog, StandardCharsets.UTF_8));
+                lines.add("#");
+                boolean hit = false;
+                boolean miss = false;
+                for (String line : lines) {
+                    if (line.startsWith("#")) {
+                        if (hit) {
+                            hits++;
+                        } else if (miss) {
+                            misses++;
+                        }
+                        hit = false;
+                        miss = false;
+                    } else if (line.equals("direct_cache_hit") || line.equals("preprocessed_cache_hit")) {
+                        hit = true;
+                    } else if (line.equals("cache_miss")) {
+                        miss = true;
+                    }
+                }
+            } catch (IOException e) {
+                hits = -1;
+            }
+        }
+        discard();
+        return new Result(millis, hits, misses);
+    }
+
+    void discard() {
+        if (statsLog != null) {
+            try {
+                Files.deleteIfExists(statsLog);
+            } catch (IOException e) {
+                // Left in the temp directory
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits one process stream into lines without a Reader. Bytes are read into
+ * a single reusable buffer and lines are cut at '\n' on the raw bytes, so
+ * reading allocates nothing per line: each line is handed out as a
+ * {@link Line} view over the buffer, which is only decoded when it is
+ * scanned as text and only becomes a String when a caller asks for one.
+ *
+ * Output is taken to be UTF-8, with malformed bytes shown as U+FFFD.
+ * A line longer than {@link #MAX_LINE_BYTES} is delivered in pieces.
+ */
+final class OutputReader {
+    static final int BUFFER_BYTES = 64 * 1024;
+    static final int MAX_LINE_BYTES = 1024 * 1024;
+
+    interface LineHandler {
+        // The line is only valid during the call
+        void onLine(Line line);
+    }
+
+    /**
+     * A line of output as UTF-8 bytes. ASCII lines, which are most of them,
+     * are read as chars straight from the bytes; other lines are decoded once
+     * into a reused char buffer the first time they are read as text.
+     */
+    static final class Line implements CharSequence {
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private CharBuffer chars = CharBuffer.allocate(256);
+        private ByteBuffer source = ByteBuffer.allocate(0);
+        private byte[] bytes;
+        private int offset;
+        private int length;
+        private boolean ascii;
+        private boolean decoded;
+        private String string;
+
+        void set(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+            ascii = true;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                if (bytes[i] < 0) {
+                    ascii = false;
+                    break;
+                }
+            }
+            decoded = ascii;
+            string = null;
+        }
+
+        byte[] array() {
+            return bytes;
+        }
+
+        int offset() {
+            return offset;
+        }
+
+        int byteLength() {
+            return length;
+        }
+
+        private void decode() {
+            if (chars.capacity() < length) {
+                chars = CharBuffer.allocate(Math.max(length, chars.capacity() * 2));
+            }
+            chars.clear();
+            decoder.reset();
+            if (source.array() != bytes) {
+                source = ByteBuffer.wrap(bytes);
+            }
+            source.limit(offset + length).position(offset);
+            decoder.decode(source, chars, true);
+            decoder.flush(chars);
+            chars.flip();
+            decoded = true;
+        }
+
+        @Override
+        public int length() {
+            if (!decoded) {
+                decode();
+            }
+            return ascii ? length : chars.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (!decoded) {
+                decode();
+            }
+            return ascii ? (char) bytes[offset + index] : chars.get(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            if (string == null) {
+                if (ascii) {
+                    // Every byte is one char, which is the cheapest String to build
+                    string = new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+                } else {
+                    if (!decoded) {
+                        decode();
+                    }
+                    string = chars.toString();
+                }
+            }
+            return string;
+        }
+    }
+
+    private OutputReader() {
+    }
+
+    // Reads until end of stream; a final line without '\n' is delivered too
+    static void read(InputStream in, LineHandler handler) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        Line line = new Line();
+        int start = 0;
+        int scanned = 0;
+        while (true) {
+            byte[] bytes = buffer.array();
+            int end = buffer.position();
+            for (int i = scanned; i < end; i++) {
+                if (bytes[i] == '\n') {
+                    deliver(line, bytes, start, i, handler);
+                    start = i + 1;
+                }
+            }
+            scanned = end;
+
+            if (start == end) {
+                buffer.clear();
+                start = 0;
+                scanned = 0;
+            } else if (!buffer.hasRemaining()) {
+                if (start > 0) {
+                    // Move the partial line to the front
+                    buffer.position(start).limit(end);
+                    buffer.compact();
+                    scanned -= start;
+                    start = 0;
+                } else if (buffer.capacity() < MAX_LINE_BYTES) {
+                    buffer = ByteBuffer.allocate(Math.min(MAX_LINE_BYTES, buffer.capacity() * 2)).put(buffer.flip());
+                } else {
+                    deliver(line, bytes, 0, end, handler);
+                    buffer.clear();
+                    scanned = 0;
+                }
+            }
+
+            int read = in.read(buffer.array(), buffer.position(), buffer.remaining());
+            if (read < 0) {
+                if (buffer.position() > start) {
+                    deliver(line, buffer.array(), start, buffer.position(), handler);
+                }
+                return;
+            }
+            buffer.position(buffer.position() + read);
+        }
+    }
+
+    private static void deliver(Line line, byte[] bytes, int from, int to, LineHandler handler) {
+        if (to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        line.set(bytes, from, to - from);
+        handler.onLine(line);
+    }
+}
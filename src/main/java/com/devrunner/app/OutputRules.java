@@ -0,0 +1,155 @@
+package com.devrunner.app;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Output rule sets from the "rules" section of project_paths.json, compiled
+ * into one {@link LineClassifier} per project type. Instances are immutable;
+ * a config reload builds a new OutputRules and swaps it in.
+ *
+ * <pre>
+ * "rules": {
+ *     "*":   { "exclude": ["0 errors"] },
+ *     "cpp": {
+ *         "defaults": true,
+ *         "suppress": ["SDL Error after display: Unknown touch device id"],
+ *         "exclude": ["-Werror"],
+ *         "include": [
+ *             "segmentation fault",
+ *             { "pattern": "deprecated", "severity": "warning" },
+ *             { "pattern": "assert", "severity": "error", "action": "console", "unless": ["static_assert"] }
+ *         ]
+ *     }
+ * }
+ * </pre>
+ *
+ * Patterns are case-insensitive substrings. "suppress" drops matching lines,
+ * "exclude" stops a line from counting as an error or warning, and "include"
+ * adds triggers. Severity is error (default), warning or info; action is
+ * dialog (default for errors), console or suppress. The "*" section applies
+ * to every project type before its own section.
+ */
+public final class OutputRules {
+    private static final String ALL_PROJECTS = "*";
+
+    private final JSONObject section;
+    private final Map<String, LineClassifier> classifiers = new ConcurrentHashMap<>();
+
+    private OutputRules(JSONObject section) {
+        this.section = section;
+    }
+
+    public static OutputRules defaults() {
+        return new OutputRules(new JSONObject());
+    }
+
+    // Compiles every configured project type up front so bad rules fail at load time
+    public static OutputRules fromConfig(JSONObject config) {
+        JSONObject section = config != null ? config.optJSONObject("rules") : null;
+        OutputRules rules = new OutputRules(section != null ? section : new JSONObject());
+        for (String projectType : ProjectTypes.ids()) {
+            rules.classifierFor(projectType);
+        }
+        for (String projectType : rules.section.keySet()) {
+            if (!projectType.equals(ALL_PROJECTS)) {
+                rules.classifierFor(projectType);
+            }
+        }
+        return rules;
+    }
+
+    public LineClassifier classifierFor(String projectType) {
+        LineClassifier classifier = classifiers.get(projectType);
+        if (classifier == null) {
+            classifier = classifiers.computeIfAbsent(projectType, this::compile);
+        }
+        return classifier;
+    }
+
+    private LineClassifier compile(String projectType) {
+        JSONObject common = section.optJSONObject(ALL_PROJECTS);
+        JSONObject own = section.optJSONObject(projectType);
+        boolean useDefaults = (common == null || common.optBoolean("defaults", true))
+            && (own == null || own.optBoolean("defaults", true));
+
+        LineClassifier.Builder builder = useDefaults
+            ? LineClassifier.defaults(projectType)
+            : LineClassifier.builder();
+        apply(builder, common);
+        apply(builder, own);
+        return builder.build();
+    }
+
+    private static void apply(LineClassifier.Builder builder, JSONObject rules) {
+        if (rules == null) {
+            return;
+        }
+        JSONArray suppress = rules.optJSONArray("suppress");
+        if (suppress != null) {
+            for (int i = 0; i < suppress.length(); i++) {
+                builder.rule(suppress.getString(i), LineClassifier.SUPPRESSED);
+            }
+        }
+        JSONArray exclude = rules.optJSONArray("exclude");
+        if (exclude != null) {
+            for (int i = 0; i < exclude.length(); i++) {
+                builder.exclude(exclude.getString(i));
+            }
+        }
+        JSONArray include = rules.optJSONArray("include");
+        if (include != null) {
+            for (int i = 0; i < include.length(); i++) {
+                Object entry = include.get(i);
+                if (entry instanceof String) {
+                    builder.rule((String) entry, LineClassifier.ERROR | LineClassifier.NOTIFY);
+                } else {
+                    addRule(builder, include.getJSONObject(i));
+                }
+            }
+        }
+    }
+
+    private static void addRule(LineClassifier.Builder builder, JSONObject rule) {
+        String pattern = rule.getString("pattern");
+        String severity = rule.optString("severity", "error");
+        int tags;
+        switch (severity) {
+            case "error":
+                tags = LineClassifier.ERROR;
+                break;
+            case "warning":
+                tags = LineClassifier.WARNING;
+                break;
+            case "info":
+                tags = 0;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown severity '" + severity + "' for pattern '" + pattern + "'");
+        }
+
+        String action = rule.optString("action", severity.equals("error") ? "dialog" : "console");
+        switch (action) {
+            case "dialog":
+                tags |= LineClassifier.NOTIFY;
+                break;
+            case "console":
+                break;
+            case "suppress":
+                tags = LineClassifier.SUPPRESSED;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown action '" + action + "' for pattern '" + pattern + "'");
+        }
+
+        JSONArray unless = rule.optJSONArray("unless");
+        String[] vetoes = new String[unless != null ? unless.length() : 0];
+        for (int i = 0; i < vetoes.length; i++) {
+            vetoes[i] = unless.getString(i);
+        }
+        builder.rule(pattern, tags, vetoes);
+    }
+}
@@ -0,0 +1,135 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Hands out local TCP ports to project instances. A port is only given out
+ * if nothing is listening on it and no other instance holds it, and it stays
+ * reserved until the instance releases it, so instances started together
+ * never share a port even before they bind. Ports come from the configured
+ * range, or from the operating system's ephemeral range by default.
+ */
+final class PortAllocator {
+    // Ephemeral ports are asked of the OS; give up if it keeps offering reserved ones
+    private static final int MAX_EPHEMERAL_TRIES = 100;
+
+    /**
+     * Optional "instances" section:
+     * { "portRange": [20000, 20999], "ports": { "typescript": ["PORT", "HMR_PORT"] } }
+     * Each variable named for the type gets a port of its own; the default is PORT.
+     */
+    static final class Settings {
+        final int first;
+        final int last;
+        final List<String> variables;
+
+        private Settings(int first, int last, List<String> variables) {
+            this.first = first;
+            this.last = last;
+            this.variables = variables;
+        }
+
+        static Settings fromConfig(JSONObject config, String projectType) {
+            JSONObject section = config != null ? config.optJSONObject("instances") : null;
+            if (section == null) {
+                section = new JSONObject();
+            }
+            int first = 0;
+            int last = 0;
+            JSONArray range = section.optJSONArray("portRange");
+            if (range != null) {
+                if (range.length() != 2 || range.optInt(0) < 1 || range.optInt(1) > 65535
+                        || range.optInt(0) > range.optInt(1)) {
+                    throw new IllegalArgumentException("instances.portRange must be [first, last] within 1-65535");
+                }
+                first = range.getInt(0);
+                last = range.getInt(1);
+            }
+            List<String> variables = new ArrayList<>();
+            JSONObject ports = section.optJSONObject("ports");
+            JSONArray names = ports != null ? ports.optJSONArray(projectType) : null;
+            if (names != null) {
+                for (int i = 0; i < names.length(); i++) {
+                    variables.add(names.getString(i));
+                }
+            } else {
+                variables.add("PORT");
+            }
+            return new Settings(first, last, variables);
+        }
+    }
+
+    // Ports given out and not yet released, in use or not; guarded by this
+    private final Set<Integer> reserved = new HashSet<>();
+    // Where the next search of a configured range starts, so released ports are not reused at once
+    private int cursor;
+
+    /** Reserves one free port per variable; throws if the range has run out. */
+    synchronized int[] reserve(Settings settings) throws IOException {
+        int[] ports = new int[settings.variables.size()];
+        try {
+            for (int i = 0; i < ports.length; i++) {
+                ports[i] = settings.first > 0 ? fromRange(settings.first, settings.last) : ephemeral();
+                reserved.add(ports[i]);
+            }
+        } catch (IOException e) {
+            release(ports);
+            throw e;
+        }
+        return ports;
+    }
+
+    synchronized void release(int[] ports) {
+        for (int port : ports) {
+            reserved.remove(port);
+        }
+    }
+
+    private int fromRange(int first, int last) throws IOException {
+        int size = last - first + 1;
+        if (cursor < first || cursor > last) {
+            cursor = first;
+        }
+        for (int i = 0; i < size; i++) {
+            int port = cursor;
+            cursor = port == last ? first : port + 1;
+            if (!reserved.contains(port) && isFree(port)) {
+                return port;
+            }
+        }
+        throw new IOException("No free port left in " + first + "-" + last);
+    }
+
+    private int ephemeral() throws IOException {
+        for (int i = 0; i < MAX_EPHEMERAL_TRIES; i++) {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            if (!reserved.contains(port)) {
+                return port;
+            }
+        }
+        throw new IOException("The system keeps offering ports that are already reserved");
+    }
+
+    // Bound on the wildcard address, which fails if anything listens on the port on any interface
+    private static boolean isFree(int port) {
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.setReuseAddress(false);
+            socket.bind(new InetSocketAddress(port));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
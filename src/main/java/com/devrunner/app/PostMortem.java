@@ -0,0 +1,192 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * What is left of a run that ended abnormally, written to
+ * &lt;dir&gt;/&lt;project&gt;/&lt;start time&gt;/ so a crash can be looked at after
+ * the restart has replaced the console: summary.json with the exit status,
+ * uptime, command and resource peaks, output.log with the last lines of
+ * output, and environment.txt with the variables the process was started
+ * with, secrets masked.
+ */
+final class PostMortem {
+    // Variables whose names look like credentials are written as "***"
+    private static final Pattern SECRET_NAME = Pattern.compile(
+        ".*(SECRET|TOKEN|PASSWORD|PASSWD|CREDENTIAL|API_?KEY|PRIVATE_?KEY|ACCESS_?KEY).*", Pattern.CASE_INSENSITIVE);
+
+    /** Optional "postmortem" section: { "enabled": true, "dir": "postmortems", "lines": 500, "keep": 20 } */
+    static final class Settings {
+        final boolean enabled;
+        final Path directory;
+        final int lines;
+        final int keep;
+
+        private Settings(boolean enabled, Path directory, int lines, int keep) {
+            this.enabled = enabled;
+            this.directory = directory;
+            this.lines = lines;
+            this.keep = keep;
+        }
+
+        static Settings fromConfig(JSONObject config) {
+            JSONObject section = config != null ? config.optJSONObject("postmortem") : null;
+            if (section == null) {
+                section = new JSONObject();
+            }
+            return new Settings(section.optBoolean("enabled", true),
+                Paths.get(section.optString("dir", "postmortems")),
+                Math.max(1, section.optInt("lines", RunnerCore.ERROR_LOG_LINES)),
+                Math.max(1, section.optInt("keep", 20)));
+        }
+    }
+
+    /** Everything about the run that has to be captured the moment it exits. */
+    static final class Run {
+        final String project;
+        final int exitCode;
+        final long startedAt;
+        final long exitedAt;
+        final List<String> command;
+        final Map<String, String> environment;
+        final double peakCpuPercent;
+        final long peakRssBytes;
+        final int peakThreads;
+        // What the supervisor does next, such as "restarting in 2 s"
+        final String outcome;
+
+        Run(ProcessSupervisor.ManagedProcess managed, int exitCode, long exitedAt,
+            ProcessMetrics.Series series, String outcome) {
+            project = managed.getProject();
+            this.exitCode = exitCode;
+            startedAt = managed.getStartedAt();
+            this.exitedAt = exitedAt;
+            command = new ArrayList<>(managed.getCommand());
+            environment = new TreeMap<>(managed.getEnvironment());
+            peakCpuPercent = series != null ? series.peakCpuPercent() : -1;
+            peakRssBytes = series != null ? series.peakRssBytes() : -1;
+            peakThreads = series != null ? series.peakThreads() : -1;
+            this.outcome = outcome;
+        }
+    }
+
+    private PostMortem() {
+    }
+
+    /**
+     * "Exited with code 3", or with the signal or Windows status behind the
+     * code. A process killed by a signal, or a script whose program was,
+     * reports 128 plus the signal number on Unix.
+     */
+    static String describeExit(int exitCode) {
+        String cause = LaunchPlan.WINDOWS ? windowsStatus(exitCode) : signalName(exitCode - 128);
+        String code = LaunchPlan.WINDOWS && exitCode < 0
+            ? String.format("0x%08X", exitCode)
+            : Integer.toString(exitCode);
+        return "Exited with code " + code + (cause != null ? " (" + cause + ")" : "");
+    }
+
+    // Numbers as on Linux; SIGBUS is 10 on macOS, where 7 is SIGEMT
+    private static String signalName(int signal) {
+        switch (signal) {
+            case 1: return "SIGHUP";
+            case 2: return "SIGINT";
+            case 3: return "SIGQUIT";
+            case 4: return "SIGILL";
+            case 5: return "SIGTRAP";
+            case 6: return "SIGABRT";
+            case 7: return "SIGBUS";
+            case 8: return "SIGFPE";
+            case 9: return "SIGKILL";
+            case 11: return "SIGSEGV";
+            case 13: return "SIGPIPE";
+            case 15: return "SIGTERM";
+            default: return null;
+        }
+    }
+
+    private static String windowsStatus(int exitCode) {
+        switch (exitCode) {
+            case 0xC0000005: return "access violation";
+            case 0xC000001D: return "illegal instruction";
+            case 0xC0000094: return "integer divide by zero";
+            case 0xC00000FD: return "stack overflow";
+            case 0xC000013A: return "Ctrl+C";
+            case 0xC0000374: return "heap corruption";
+            case 0xC0000409: return "stack buffer overrun";
+            default: return null;
+        }
+    }
+
+    /** Writes the bundle and deletes the oldest ones of the project beyond keep. */
+    static Path write(Settings settings, Run run, LogStore logStore) throws IOException {
+        Path projectDir = settings.directory.resolve(SessionLog.directoryName(run.project));
+        String stamp = LocalDateTime.now().format(SessionLog.FILE_NAME);
+        Path dir = projectDir.resolve(stamp);
+        for (int i = 1; Files.exists(dir); i++) {
+            dir = projectDir.resolve(stamp + "-" + i);
+        }
+        Files.createDirectories(dir);
+
+        JSONObject summary = new JSONObject();
+        summary.put("project", run.project);
+        summary.put("exitCode", run.exitCode);
+        summary.put("exit", describeExit(run.exitCode));
+        summary.put("outcome", run.outcome);
+        summary.put("startedAt", Instant.ofEpochMilli(run.startedAt).toString());
+        summary.put("exitedAt", Instant.ofEpochMilli(run.exitedAt).toString());
+        summary.put("uptimeMs", run.exitedAt - run.startedAt);
+        summary.put("command", new JSONArray(run.command));
+        JSONObject peaks = new JSONObject();
+        peaks.put("cpuPercent", Math.round(run.peakCpuPercent * 10) / 10.0);
+        peaks.put("rssBytes", run.peakRssBytes);
+        peaks.put("threads", run.peakThreads);
+        summary.put("peaks", peaks);
+        Files.writeString(dir.resolve("summary.json"), summary.toString(4));
+
+        StringBuilder output = new StringBuilder();
+        if (logStore != null) {
+            logStore.appendTail(output, settings.lines);
+        }
+        Files.writeString(dir.resolve("output.log"), output, StandardCharsets.UTF_8);
+
+        StringBuilder environment = new StringBuilder();
+        run.environment.forEach((name, value) -> environment.append(name).append('=')
+            .append(SECRET_NAME.matcher(name).matches() ? "***" : value).append('\n'));
+        Files.writeString(dir.resolve("environment.txt"), environment, StandardCharsets.UTF_8);
+
+        prune(projectDir, settings.keep);
+        return dir;
+    }
+
+    private static void prune(Path projectDir, int keep) throws IOException {
+        List<Path> bundles;
+        try (Stream<Path> dirs = Files.list(projectDir)) {
+            bundles = dirs.filter(Files::isDirectory).sorted().collect(Collectors.toList());
+        }
+        for (int i = 0; i < bundles.size() - keep; i++) {
+            try (Stream<Path> files = Files.walk(bundles.get(i))) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+}
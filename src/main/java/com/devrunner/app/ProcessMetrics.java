@@ -0,0 +1,303 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Samples CPU, resident memory and thread count for every project's main
+ * process and all of its descendants. On Linux the figures come straight
+ * from /proc/&lt;pid&gt;/stat and /proc/&lt;pid&gt;/status; elsewhere only CPU
+ * time is available, through ProcessHandle.Info. Samples are kept per
+ * project in primitive ring buffers, so sampling allocates no boxes.
+ */
+public class ProcessMetrics {
+    // USER_HZ, the unit of the CPU times in /proc/<pid>/stat; 100 on every mainstream kernel
+    private static final long CLOCK_TICKS_PER_SEC = 100;
+    private static final Path PROC = Paths.get("/proc");
+    public static final long DEFAULT_INTERVAL_MS = 1000;
+    public static final int DEFAULT_HISTORY = 120;
+
+    /** Fixed-size history of one project's samples; read on the EDT, written by the sampler. */
+    public static final class Series {
+        private final double[] cpuPercent;
+        private final long[] rssBytes;
+        private final int[] threads;
+        private int head;
+        private int count;
+        // CPU time per pid at the previous sample, sorted by pid, for deltas
+        private long[] lastPids = new long[0];
+        private long[] lastCpuNanos = new long[0];
+        private long lastSampleNanos;
+        // Cores the main process may run on, as "0-3"; null when stopped or unknown
+        private volatile String cpus;
+        // Highest figures of the current or last run, kept after it exits for post-mortems
+        private long runStartedAt;
+        private double peakCpuPercent;
+        private long peakRssBytes;
+        private int peakThreads;
+
+        Series(int capacity) {
+            cpuPercent = new double[capacity];
+            rssBytes = new long[capacity];
+            threads = new int[capacity];
+        }
+
+        public synchronized int size() {
+            return count;
+        }
+
+        public String cpus() {
+            return cpus;
+        }
+
+        public synchronized double peakCpuPercent() {
+            return peakCpuPercent;
+        }
+
+        // -1 when the platform does not report it
+        public synchronized long peakRssBytes() {
+            return peakRssBytes;
+        }
+
+        // -1 when the platform does not report it
+        public synchronized int peakThreads() {
+            return peakThreads;
+        }
+
+        public int capacity() {
+            return cpuPercent.length;
+        }
+
+        // i = 0 is the oldest retained sample
+        public synchronized double cpuPercent(int i) {
+            return cpuPercent[index(i)];
+        }
+
+        // -1 when the platform does not report it
+        public synchronized long rssBytes(int i) {
+            return rssBytes[index(i)];
+        }
+
+        // -1 when the platform does not report it
+        public synchronized int threads(int i) {
+            return threads[index(i)];
+        }
+
+        private int index(int i) {
+            return (head - count + i + cpuPercent.length) % cpuPercent.length;
+        }
+
+        synchronized void startRun(long startedAt) {
+            if (startedAt != runStartedAt) {
+                runStartedAt = startedAt;
+                peakCpuPercent = 0;
+                peakRssBytes = 0;
+                peakThreads = 0;
+            }
+        }
+
+        synchronized void add(double cpu, long rss, int threadCount) {
+            // The all-zero sample that marks a stop is not a reading
+            if (runStartedAt != 0 && (cpu > 0 || rss != 0 || threadCount != 0)) {
+                peakCpuPercent = Math.max(peakCpuPercent, cpu);
+                peakRssBytes = rss < 0 ? -1 : Math.max(peakRssBytes, rss);
+                peakThreads = threadCount < 0 ? -1 : Math.max(peakThreads, threadCount);
+            }
+            cpuPercent[head] = cpu;
+            rssBytes[head] = rss;
+            threads[head] = threadCount;
+            head = (head + 1) % cpuPercent.length;
+            if (count < cpuPercent.length) {
+                count++;
+            }
+        }
+    }
+
+    private final ProcessSupervisor supervisor;
+    private final int history;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    private final boolean procfs = Files.isDirectory(PROC.resolve("self"));
+    private ScheduledExecutorService sampler;
+
+    public ProcessMetrics(ProcessSupervisor supervisor, List<String> projects, int history) {
+        this.supervisor = supervisor;
+        this.history = history;
+        for (String project : projects) {
+            series.put(project, new Series(history));
+        }
+    }
+
+    public Series series(String project) {
+        return series.computeIfAbsent(project, p -> new Series(history));
+    }
+
+    /** Starts sampling; onSample runs on the sampler thread after each round. */
+    public synchronized void start(long intervalMs, Consumer<ProcessMetrics> onSample) {
+        stop();
+        sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "process-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleWithFixedDelay(() -> {
+            try {
+                sampleAll();
+                onSample.accept(this);
+            } catch (RuntimeException e) {
+                // Never let one bad read cancel the schedule
+                e.printStackTrace();
+            }
+        }, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    private void sampleAll() {
+        // Instances such as "typescript#2" get a series once they are running
+        for (String project : supervisor.getProjects()) {
+            series(project);
+        }
+        for (String project : series.keySet()) {
+            Series projectSeries = series(project);
+            ProcessSupervisor.ManagedProcess managed = supervisor.get(project);
+            if (managed == null || !managed.getProcess().isAlive()) {
+                projectSeries.cpus = null;
+                if (projectSeries.lastPids.length > 0) {
+                    projectSeries.add(0, 0, 0);
+                    projectSeries.lastPids = new long[0];
+                    projectSeries.lastCpuNanos = new long[0];
+                }
+                continue;
+            }
+            projectSeries.startRun(managed.getStartedAt());
+            sample(managed.getHandle(), projectSeries);
+        }
+    }
+
+    private void sample(ProcessHandle root, Series projectSeries) {
+        if (procfs) {
+            projectSeries.cpus = readCpusAllowed(root.pid());
+        }
+        List<ProcessHandle> tree = root.descendants().collect(Collectors.toList());
+        tree.add(root);
+        long[] pids = new long[tree.size()];
+        for (int i = 0; i < pids.length; i++) {
+            pids[i] = tree.get(i).pid();
+        }
+        Arrays.sort(pids);
+
+        long[] cpuNanos = new long[pids.length];
+        long rss = procfs ? 0 : -1;
+        int threadCount = procfs ? 0 : -1;
+        long[] stat = new long[2];
+        for (int i = 0; i < pids.length; i++) {
+            if (procfs && readProc(pids[i], stat)) {
+                cpuNanos[i] = stat[0];
+                threadCount += (int) stat[1];
+                rss += readRss(pids[i]);
+            } else {
+                cpuNanos[i] = ProcessHandle.of(pids[i])
+                    .flatMap(handle -> handle.info().totalCpuDuration())
+                    .map(Duration::toNanos)
+                    .orElse(0L);
+            }
+        }
+
+        long now = System.nanoTime();
+        double cpu = 0;
+        // The first sample of a run has nothing to diff against
+        if (projectSeries.lastPids.length > 0) {
+            long used = 0;
+            for (int i = 0; i < pids.length; i++) {
+                int previous = Arrays.binarySearch(projectSeries.lastPids, pids[i]);
+                // A pid not seen before started during the interval, so all its CPU time is new
+                used += cpuNanos[i] - (previous >= 0 ? projectSeries.lastCpuNanos[previous] : 0);
+            }
+            long elapsed = now - projectSeries.lastSampleNanos;
+            cpu = elapsed > 0 ? Math.max(0, used * 100.0 / elapsed) : 0;
+        }
+        projectSeries.lastPids = pids;
+        projectSeries.lastCpuNanos = cpuNanos;
+        projectSeries.lastSampleNanos = now;
+        projectSeries.add(cpu, rss, threadCount);
+    }
+
+    // Fills {cpu nanos, threads} from /proc/<pid>/stat; false if the process is gone
+    private static boolean readProc(long pid, long[] out) {
+        String stat;
+        try {
+            stat = new String(Files.readAllBytes(PROC.resolve(Long.toString(pid)).resolve("stat")),
+                StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            return false;
+        }
+        // The command name may contain spaces and parentheses, so fields are counted from the last ')'
+        int end = stat.lastIndexOf(')');
+        if (end < 0) {
+            return false;
+        }
+        String[] fields = stat.substring(end + 2).split(" ");
+        // fields[0] is field 3 (state): utime is field 14, stime 15, num_threads 20
+        if (fields.length < 18) {
+            return false;
+        }
+        try {
+            long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+            out[0] = ticks * (1_000_000_000L / CLOCK_TICKS_PER_SEC);
+            out[1] = Long.parseLong(fields[17]);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // The affinity set by the scheduling settings, which every descendant inherits
+    private static String readCpusAllowed(long pid) {
+        try {
+            for (String line : Files.readAllLines(PROC.resolve(Long.toString(pid)).resolve("status"),
+                    StandardCharsets.US_ASCII)) {
+                if (line.startsWith("Cpus_allowed_list:")) {
+                    return line.substring(18).trim();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Process exited
+        }
+        return null;
+    }
+
+    private static long readRss(long pid) {
+        try {
+            for (String line : Files.readAllLines(PROC.resolve(Long.toString(pid)).resolve("status"),
+                    StandardCharsets.US_ASCII)) {
+                if (line.startsWith("VmRSS:")) {
+                    // "VmRSS:     12345 kB"
+                    String value = line.substring(6).trim();
+                    int space = value.indexOf(' ');
+                    return Long.parseLong(space > 0 ? value.substring(0, space) : value) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Process exited between reading stat and status
+        }
+        return 0;
+    }
+}
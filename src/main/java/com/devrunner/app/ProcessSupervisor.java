@@ -0,0 +1,272 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Owns every child process DevRunner starts. Each project has one main
+ * process slot; short-lived helpers (which, chmod, npm install, wsl --status) are
+ * tracked separately so they are torn down too. Stopping always kills the
+ * whole process tree, because run scripts usually start the real program as
+ * a grandchild that would otherwise be orphaned.
+ *
+ * There is deliberately no restart here. Restarting a project, whether by
+ * hand, from the daemon's "restart" verb, on a source change or after a
+ * crash, is a fresh launch through {@link RunnerCore}: the launch stages
+ * rebuild the environment, ports and readiness signal that a replayed
+ * ProcessBuilder would carry over stale, and the new process then takes the
+ * project's slot from the old one with {@link #start}.
+ *
+ * Output readers run on virtual threads when the JVM provides them (JDK 21+)
+ * and on a cached pool of daemon threads otherwise.
+ */
+public class ProcessSupervisor {
+    private static final long STOP_GRACE_MS = 3000;
+    private static final long SHUTDOWN_GRACE_MS = 2000;
+
+    public interface Listener {
+        // Called from arbitrary threads when a project's main process starts or exits
+        void onStateChanged(String project, boolean running);
+
+        // Called before onStateChanged when a main process exits on its own rather than being stopped
+        default void onExited(ManagedProcess managed, int exitCode) {
+        }
+    }
+
+    public static final class ManagedProcess {
+        private final String project;
+        private final String label;
+        private final Process process;
+        private final ProcessBuilder builder;
+        private final long startedAt;
+
+        ManagedProcess(String project, String label, Process process, ProcessBuilder builder) {
+            this.project = project;
+            this.label = label;
+            this.process = process;
+            this.builder = builder;
+            this.startedAt = System.currentTimeMillis();
+        }
+
+        public String getProject() {
+            return project;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public Process getProcess() {
+            return process;
+        }
+
+        public ProcessHandle getHandle() {
+            return process.toHandle();
+        }
+
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        public List<String> getCommand() {
+            return builder.command();
+        }
+
+        public Map<String, String> getEnvironment() {
+            return builder.environment();
+        }
+    }
+
+    private final ExecutorService readers = newReaderExecutor();
+    private final Map<String, ManagedProcess> mainProcesses = new ConcurrentHashMap<>();
+    private final Set<ManagedProcess> helpers = ConcurrentHashMap.newKeySet();
+    private volatile Listener listener = (project, running) -> { };
+    private volatile boolean shuttingDown;
+
+    public ProcessSupervisor() {
+        // Last line of defence if the JVM exits without going through shutdown()
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "process-supervisor-shutdown"));
+    }
+
+    private static ExecutorService newReaderExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "process-reader-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // Starts the project's main process, stopping any previous one first
+    public ManagedProcess start(String project, ProcessBuilder builder,
+                                Consumer<ManagedProcess> onStarted) throws IOException {
+        if (shuttingDown) {
+            throw new IOException("DevRunner is shutting down");
+        }
+        ManagedProcess previous = mainProcesses.remove(project);
+        if (previous != null) {
+            destroyTree(previous.getHandle(), STOP_GRACE_MS);
+        }
+        Process process = builder.start();
+        ManagedProcess managed = new ManagedProcess(project, project, process, builder);
+        mainProcesses.put(project, managed);
+        process.onExit().thenRun(() -> {
+            // Heard before the slot is freed, so whoever sees it free also sees what the listener did
+            if (mainProcesses.get(project) == managed) {
+                listener.onExited(managed, process.exitValue());
+            }
+            if (mainProcesses.remove(project, managed)) {
+                listener.onStateChanged(project, false);
+            }
+        });
+        listener.onStateChanged(project, true);
+        if (onStarted != null) {
+            onStarted.accept(managed);
+        }
+        return managed;
+    }
+
+    // Starts a short-lived helper that is only tracked so it can be torn down
+    public ManagedProcess startHelper(String label, ProcessBuilder builder) throws IOException {
+        if (shuttingDown) {
+            throw new IOException("DevRunner is shutting down");
+        }
+        Process process = builder.start();
+        ManagedProcess managed = new ManagedProcess(null, label, process, builder);
+        helpers.add(managed);
+        process.onExit().thenRun(() -> helpers.remove(managed));
+        return managed;
+    }
+
+    public boolean stop(String project) {
+        ManagedProcess managed = mainProcesses.remove(project);
+        if (managed == null) {
+            return false;
+        }
+        destroyTree(managed.getHandle(), STOP_GRACE_MS);
+        listener.onStateChanged(project, false);
+        return true;
+    }
+
+    // Stops this run only, leaving alone any newer process that has taken the project's slot
+    public boolean stop(ManagedProcess managed) {
+        if (!mainProcesses.remove(managed.project, managed)) {
+            return false;
+        }
+        destroyTree(managed.getHandle(), STOP_GRACE_MS);
+        listener.onStateChanged(managed.project, false);
+        return true;
+    }
+
+    public ManagedProcess get(String project) {
+        return mainProcesses.get(project);
+    }
+
+    public boolean isShuttingDown() {
+        return shuttingDown;
+    }
+
+    public Set<String> getProjects() {
+        return mainProcesses.keySet();
+    }
+
+    public boolean isRunning(String project) {
+        ManagedProcess managed = mainProcesses.get(project);
+        return managed != null && managed.process.isAlive();
+    }
+
+    public void submitReader(String name, Runnable task) {
+        readers.execute(() -> {
+            Thread current = Thread.currentThread();
+            String previousName = current.getName();
+            current.setName("output-" + name);
+            try {
+                task.run();
+            } finally {
+                current.setName(previousName);
+            }
+        });
+    }
+
+    // Kills every tracked process tree and waits briefly for them to go away
+    public synchronized void shutdown() {
+        if (shuttingDown) {
+            return;
+        }
+        shuttingDown = true;
+        List<ProcessHandle> roots = new ArrayList<>();
+        mainProcesses.values().forEach(managed -> roots.add(managed.getHandle()));
+        helpers.forEach(managed -> roots.add(managed.getHandle()));
+        mainProcesses.clear();
+        helpers.clear();
+
+        List<ProcessHandle> all = new ArrayList<>();
+        for (ProcessHandle root : roots) {
+            all.addAll(snapshotTree(root));
+        }
+        all.forEach(ProcessHandle::destroy);
+        awaitExit(all, SHUTDOWN_GRACE_MS);
+        all.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
+        readers.shutdownNow();
+    }
+
+    /**
+     * Asks the whole tree to terminate and force-kills whatever is still
+     * alive after the grace period. The descendants are captured before the
+     * root dies, since orphans get re-parented and drop out of the tree.
+     */
+    static void destroyTree(ProcessHandle root, long graceMs) {
+        List<ProcessHandle> tree = snapshotTree(root);
+        tree.forEach(ProcessHandle::destroy);
+        CompletableFuture
+            .allOf(tree.stream().map(ProcessHandle::onExit).toArray(CompletableFuture[]::new))
+            .orTimeout(graceMs, TimeUnit.MILLISECONDS)
+            .whenComplete((ignored, timeout) -> {
+                if (timeout != null) {
+                    tree.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
+                }
+            });
+    }
+
+    private static List<ProcessHandle> snapshotTree(ProcessHandle root) {
+        List<ProcessHandle> tree = root.descendants().collect(Collectors.toList());
+        tree.add(root);
+        return tree;
+    }
+
+    private static void awaitExit(List<ProcessHandle> handles, long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        for (ProcessHandle handle : handles) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return;
+            }
+            try {
+                handle.onExit().get(remaining, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // Timed out or interrupted; the caller force-kills survivors
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.devrunner.app;
+
+import java.util.List;
+
+/**
+ * A kind of project DevRunner can launch. The built-in types are listed in
+ * {@link BuiltinProjectTypes}; others, such as Rust or Go, are picked up
+ * with {@link java.util.ServiceLoader} from any jar on the classpath that
+ * names its implementation in
+ * META-INF/services/com.devrunner.app.ProjectType.
+ *
+ * Every method is called once, when {@link ProjectTypes} compiles the type
+ * into a {@link LaunchPlan}; only the defaults need overriding for a project
+ * that is started by run.sh / run.ps1 and is ready at its first output line.
+ */
+public interface ProjectType {
+    enum Readiness {
+        // Ready as soon as the process prints anything
+        FIRST_OUTPUT,
+        // Ready once a dev-server URL shows up; the window offers to open it
+        URL
+    }
+
+    /** A tool the project needs on the PATH; launching without it is reported, not refused. */
+    final class Dependency {
+        private final String tool;
+        private final String name;
+
+        public Dependency(String tool, String name) {
+            this.tool = tool;
+            this.name = name;
+        }
+
+        public String getTool() {
+            return tool;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    // Key used in project_paths.json, on the command line and in rules
+    String id();
+
+    default String displayName() {
+        return id().substring(0, 1).toUpperCase() + id().substring(1);
+    }
+
+    // Used when project_paths.json does not give a path
+    default String defaultPath() {
+        return "../" + displayName();
+    }
+
+    default String unixScript() {
+        return "run.sh";
+    }
+
+    default String windowsScript() {
+        return "run.ps1";
+    }
+
+    // Files that identify a folder holding run scripts as this type during workspace discovery
+    default List<String> markers() {
+        return List.of();
+    }
+
+    // On Windows, offer to run unixScript through WSL when windowsScript is missing
+    default boolean wslFallback() {
+        return false;
+    }
+
+    default Readiness readiness() {
+        return Readiness.FIRST_OUTPUT;
+    }
+
+    // Run "npm install" before starting whenever package.json or a lockfile changed
+    default boolean installsNodeModules() {
+        return false;
+    }
+
+    // The run script compiles C or C++ with CMake or make; it gets parallel jobs, ccache and Ninja when available
+    default boolean buildsNativeCode() {
+        return false;
+    }
+
+    // Output rules on top of the shared error and warning keywords
+    default void addOutputRules(LineClassifier.Builder rules) {
+    }
+
+    default List<Dependency> dependencies() {
+        return List.of();
+    }
+}
@@ -0,0 +1,55 @@
+package com.devrunner.app;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the {@link ProjectType}s found with {@link ServiceLoader},
+ * each compiled into its {@link LaunchPlan} on first use. The built-in types
+ * come first, in the order of this jar's service file; a type whose id is
+ * already taken, or that fails to load, is reported and skipped.
+ */
+public final class ProjectTypes {
+    private static final Map<String, LaunchPlan> PLANS = load();
+    private static final List<String> IDS = Collections.unmodifiableList(new ArrayList<>(PLANS.keySet()));
+
+    private ProjectTypes() {
+    }
+
+    private static Map<String, LaunchPlan> load() {
+        Map<String, LaunchPlan> plans = new LinkedHashMap<>();
+        ServiceLoader<ProjectType> loader = ServiceLoader.load(ProjectType.class, ProjectTypes.class.getClassLoader());
+        try {
+            for (ProjectType type : loader) {
+                try {
+                    LaunchPlan plan = new LaunchPlan(type);
+                    if (plans.putIfAbsent(plan.getId(), plan) != null) {
+                        System.err.println("Ignoring project type " + type.getClass().getName()
+                            + ": '" + plan.getId() + "' is already defined");
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Ignoring project type " + type.getClass().getName() + ": " + e);
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            // A broken provider entry stops the iteration; keep what loaded so far
+            System.err.println("Could not load every project type: " + e.getMessage());
+        }
+        return Collections.unmodifiableMap(plans);
+    }
+
+    // Project type ids in display order
+    public static List<String> ids() {
+        return IDS;
+    }
+
+    // The launch plan for a project type, or null for anything else, such as helper processes
+    public static LaunchPlan plan(String id) {
+        return PLANS.get(id);
+    }
+}
@@ -0,0 +1,229 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Watches a project tree for source edits. WatchService is not recursive, so
+ * every directory is registered on its own, including ones created later.
+ * Build output, dependency and VCS directories are skipped, since a running
+ * build writes to them constantly, and so are build artifacts that scripts
+ * compiling in place write next to the sources. A burst of events is debounced and the
+ * callback, run on the watcher thread, receives the System.nanoTime() of the
+ * burst's first event so callers can measure edit-to-running latency.
+ */
+public class ProjectWatcher implements AutoCloseable {
+    private static final long DEBOUNCE_MS = 300;
+    private static final Set<String> IGNORED_DIRS = new HashSet<>(Arrays.asList(
+        "build", "target", "out", "bin", "obj", "dist", "node_modules", "CMakeFiles",
+        "__pycache__", "venv", "logs"));
+    // Compiler and linker output; a run script that builds in place would otherwise restart itself forever
+    private static final Set<String> IGNORED_EXTENSIONS = new HashSet<>(Arrays.asList(
+        "class", "jar", "o", "obj", "a", "lib", "so", "dylib", "dll", "exe", "pdb", "d", "gch", "pch",
+        "pyc", "pyo", "log"));
+
+    /**
+     * Optional "watch" section, per project type, with extra files to ignore:
+     * { "cpp": { "ignore": ["game", "assets/generated/**"] } }
+     * A pattern without a slash is matched against file names, one with a
+     * slash against the path under the project folder.
+     */
+    static final class Settings {
+        static final Settings NONE = new Settings(List.of(), List.of());
+
+        private final List<PathMatcher> names;
+        private final List<PathMatcher> paths;
+
+        private Settings(List<PathMatcher> names, List<PathMatcher> paths) {
+            this.names = names;
+            this.paths = paths;
+        }
+
+        static Settings fromConfig(JSONObject config, String projectType) {
+            JSONObject watch = config != null ? config.optJSONObject("watch") : null;
+            JSONObject section = watch != null ? watch.optJSONObject(projectType) : null;
+            JSONArray ignore = section != null ? section.optJSONArray("ignore") : null;
+            if (ignore == null) {
+                return NONE;
+            }
+            List<PathMatcher> names = new ArrayList<>();
+            List<PathMatcher> paths = new ArrayList<>();
+            for (int i = 0; i < ignore.length(); i++) {
+                String pattern = ignore.getString(i);
+                try {
+                    PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+                    (pattern.contains("/") ? paths : names).add(matcher);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid watch.ignore pattern '" + pattern + "' for "
+                        + projectType + ": " + e.getMessage());
+                }
+            }
+            return new Settings(names, paths);
+        }
+
+        boolean ignores(Path relative) {
+            Path fileName = relative.getFileName();
+            return (fileName != null && names.stream().anyMatch(matcher -> matcher.matches(fileName)))
+                || paths.stream().anyMatch(matcher -> matcher.matches(relative));
+        }
+    }
+
+    private final Path root;
+    private final String name;
+    private final Settings settings;
+    private final LongConsumer onChange;
+    private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread thread;
+
+    public ProjectWatcher(Path root, String name, Settings settings, LongConsumer onChange) {
+        this.root = root.toAbsolutePath().normalize();
+        this.name = name;
+        this.settings = settings;
+        this.onChange = onChange;
+    }
+
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        registerTree(root);
+        thread = new Thread(this::run, "project-watcher-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Hidden directories (.git, .gradle, .idea, .venv) are never sources
+    static boolean isIgnoredDir(Path dir) {
+        Path fileName = dir.getFileName();
+        if (fileName == null) {
+            return false;
+        }
+        String dirName = fileName.toString();
+        return dirName.startsWith(".") || dirName.startsWith("cmake-build") || IGNORED_DIRS.contains(dirName);
+    }
+
+    // Editor swap and backup files change on every keystroke or save; build artifacts on every build
+    private static boolean isIgnoredFile(String fileName) {
+        if (fileName.endsWith("~") || fileName.endsWith(".swp") || fileName.endsWith(".tmp")
+                || fileName.startsWith(".#")) {
+            return true;
+        }
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 && IGNORED_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase());
+    }
+
+    private void registerTree(Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(root) && isIgnoredDir(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                WatchKey key = dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+                keys.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                // Unreadable or vanished entries are simply not watched
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                long firstEvent = System.nanoTime();
+                boolean touched = drain(key);
+                // Absorb the rest of the burst before restarting
+                WatchKey more;
+                while ((more = watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    touched |= drain(more);
+                }
+                if (touched) {
+                    try {
+                        onChange.accept(firstEvent);
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private boolean drain(WatchKey key) {
+        Path dir = keys.get(key);
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                touched = true;
+                continue;
+            }
+            Path child = dir.resolve((Path) event.context());
+            String childName = child.getFileName().toString();
+            // Checked by name too, since a deleted build directory is no longer a directory
+            if (IGNORED_DIRS.contains(childName) || childName.startsWith("cmake-build") || isIgnoredFile(childName)
+                    || settings.ignores(root.relativize(child))) {
+                continue;
+            }
+            if (Files.isDirectory(child)) {
+                if (isIgnoredDir(child)) {
+                    continue;
+                }
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    try {
+                        registerTree(child);
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+            touched = true;
+        }
+        if (!key.reset()) {
+            keys.remove(key);
+        }
+        return touched;
+    }
+
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.json.JSONObject;
+
+/**
+ * Checks that a project's server really accepts connections: a TCP connect,
+ * or an HTTP GET that must answer 2xx. Every probe of every project runs on
+ * one selector thread with non-blocking channels, retrying at a fixed
+ * interval until it succeeds, times out or is cancelled. When a host name
+ * resolves to several addresses, such as 127.0.0.1 and ::1 for localhost,
+ * attempts take turns between them.
+ */
+final class ReadinessProbe {
+    public static final long DEFAULT_TIMEOUT_MS = 60_000;
+    public static final long DEFAULT_INTERVAL_MS = 100;
+    private static final int MAX_RESPONSE_BYTES = 1024;
+
+    enum Mode {
+        // Ready on the first line of output, or on the URL line for URL-ready types
+        LOG,
+        TCP,
+        HTTP
+    }
+
+    /**
+     * Optional "readiness" section, per project type:
+     * { "typescript": { "probe": "http", "port": 5173, "path": "/", "timeoutSec": 60, "intervalMs": 100 } }
+     * Without a port, the port of the URL the project prints is probed.
+     */
+    static final class Settings {
+        final Mode mode;
+        final String host;
+        final int port;
+        final String path;
+        final long timeoutMs;
+        final long intervalMs;
+
+        private Settings(Mode mode, String host, int port, String path, long timeoutMs, long intervalMs) {
+            this.mode = mode;
+            this.host = host;
+            this.port = port;
+            this.path = path;
+            this.timeoutMs = timeoutMs;
+            this.intervalMs = intervalMs;
+        }
+
+        // Types that print a URL are probed over HTTP by default, the rest are ready on output
+        static Settings fromConfig(JSONObject config, String projectType) {
+            JSONObject readiness = config != null ? config.optJSONObject("readiness") : null;
+            JSONObject section = readiness != null ? readiness.optJSONObject(projectType) : null;
+            if (section == null) {
+                section = new JSONObject();
+            }
+            LaunchPlan plan = ProjectTypes.plan(projectType);
+            Mode fallback = plan != null && plan.isReadyOnUrl() ? Mode.HTTP : Mode.LOG;
+            String probe = section.optString("probe", fallback.name()).toUpperCase();
+            Mode mode;
+            try {
+                mode = Mode.valueOf(probe);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown readiness probe '" + probe.toLowerCase()
+                    + "' for " + projectType + "; expected log, tcp or http");
+            }
+            return new Settings(mode,
+                section.optString("host", "localhost"),
+                section.optInt("port", 0),
+                section.optString("path", "/"),
+                TimeUnit.SECONDS.toMillis(section.optLong("timeoutSec", DEFAULT_TIMEOUT_MS / 1000)),
+                Math.max(10, section.optLong("intervalMs", DEFAULT_INTERVAL_MS)));
+        }
+
+        Settings withPort(int port) {
+            return new Settings(mode, host, port, path, timeoutMs, intervalMs);
+        }
+
+        boolean probes() {
+            return mode != Mode.LOG;
+        }
+
+        // The target to probe: the declared port, or else the printed URL; null if neither is known
+        URI target(String detectedUrl) {
+            if (port > 0) {
+                return URI.create("http://" + (host.contains(":") ? "[" + host + "]" : host) + ":" + port + path);
+            }
+            if (detectedUrl == null) {
+                return null;
+            }
+            try {
+                URI url = new URI(detectedUrl);
+                return url.getHost() != null ? url : null;
+            } catch (URISyntaxException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final Selector SELECTOR = openSelector();
+    private static final Queue<Attempt> QUEUED = new ConcurrentLinkedQueue<>();
+
+    static {
+        Thread loop = new Thread(ReadinessProbe::run, "readiness-probe");
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    private ReadinessProbe() {
+    }
+
+    private static Selector openSelector() {
+        try {
+            return Selector.open();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open a selector for readiness probes", e);
+        }
+    }
+
+    /**
+     * Probes the target until it answers. The future completes with a short
+     * description such as "http 200 from http://localhost:5173/", fails with a
+     * TimeoutException after the settings' timeout, and cancelling it stops
+     * the probe.
+     */
+    static CompletableFuture<String> probe(Settings settings, URI target) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        int port = target.getPort() > 0 ? target.getPort() : target.getScheme().equals("https") ? 443 : 80;
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        try {
+            for (InetAddress address : InetAddress.getAllByName(target.getHost())) {
+                addresses.add(new InetSocketAddress(address, port));
+            }
+        } catch (UnknownHostException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        String path = target.getRawPath() == null || target.getRawPath().isEmpty() ? "/" : target.getRawPath();
+        if (target.getRawQuery() != null) {
+            path += "?" + target.getRawQuery();
+        }
+        // A bare TCP connect is all that can be checked against TLS
+        boolean http = settings.mode == Mode.HTTP && !target.getScheme().equals("https");
+        String request = http
+            ? "GET " + path + " HTTP/1.1\r\nHost: " + target.getHost() + ":" + port
+                + "\r\nUser-Agent: DevRunner\r\nAccept: */*\r\nConnection: close\r\n\r\n"
+            : null;
+        QUEUED.add(new Attempt(target, addresses, request, settings, result));
+        SELECTOR.wakeup();
+        return result;
+    }
+
+    private static final class Attempt {
+        final URI target;
+        final List<InetSocketAddress> addresses;
+        final ByteBuffer request;
+        final long intervalNanos;
+        final long deadline;
+        final CompletableFuture<String> result;
+        int next;
+        long due;
+        SocketChannel channel;
+        ByteBuffer response;
+
+        Attempt(URI target, List<InetSocketAddress> addresses, String request, Settings settings,
+                CompletableFuture<String> result) {
+            this.target = target;
+            this.addresses = addresses;
+            this.request = request != null ? ByteBuffer.wrap(request.getBytes(StandardCharsets.US_ASCII)) : null;
+            this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.intervalMs);
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.timeoutMs);
+            this.result = result;
+            this.due = System.nanoTime();
+        }
+    }
+
+    // The selector loop; everything below runs on the probe thread only
+    private static void run() {
+        PriorityQueue<Attempt> waiting = new PriorityQueue<>(Comparator.comparingLong((Attempt a) -> a.due));
+        Set<Attempt> connecting = new HashSet<>();
+        while (true) {
+            try {
+                Attempt queued;
+                while ((queued = QUEUED.poll()) != null) {
+                    waiting.add(queued);
+                }
+                long now = System.nanoTime();
+                while (!waiting.isEmpty() && waiting.peek().due - now <= 0) {
+                    Attempt attempt = waiting.poll();
+                    if (!expired(attempt, now)) {
+                        connect(attempt, waiting, connecting);
+                    }
+                }
+                for (Iterator<Attempt> it = connecting.iterator(); it.hasNext(); ) {
+                    Attempt attempt = it.next();
+                    if (expired(attempt, now)) {
+                        it.remove();
+                    }
+                }
+
+                long timeoutMs = 0;
+                if (!waiting.isEmpty()) {
+                    timeoutMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(waiting.peek().due - now));
+                }
+                if (!connecting.isEmpty()) {
+                    // Wake up now and then to notice deadlines and cancellations
+                    timeoutMs = timeoutMs == 0 ? 100 : Math.min(timeoutMs, 100);
+                }
+                SELECTOR.select(timeoutMs);
+                for (SelectionKey key : SELECTOR.selectedKeys()) {
+                    Attempt attempt = (Attempt) key.attachment();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (!step(attempt, key)) {
+                        continue;
+                    }
+                    connecting.remove(attempt);
+                    if (!attempt.result.isDone()) {
+                        retry(attempt, waiting);
+                    }
+                }
+                SELECTOR.selectedKeys().clear();
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                // Keep probing the other projects
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // Fails or drops attempts that ran out of time or were cancelled; true if it did
+    private static boolean expired(Attempt attempt, long now) {
+        if (attempt.result.isDone()) {
+            close(attempt);
+            return true;
+        }
+        if (now - attempt.deadline > 0) {
+            close(attempt);
+            attempt.result.completeExceptionally(new TimeoutException("nothing answered at " + attempt.target));
+            return true;
+        }
+        return false;
+    }
+
+    private static void connect(Attempt attempt, PriorityQueue<Attempt> waiting, Set<Attempt> connecting) {
+        InetSocketAddress address = attempt.addresses.get(attempt.next++ % attempt.addresses.size());
+        try {
+            SocketChannel channel = SocketChannel.open();
+            attempt.channel = channel;
+            channel.configureBlocking(false);
+            if (channel.connect(address)) {
+                if (connected(attempt)) {
+                    return;
+                }
+            } else {
+                channel.register(SELECTOR, SelectionKey.OP_CONNECT, attempt);
+            }
+            connecting.add(attempt);
+        } catch (IOException e) {
+            retry(attempt, waiting);
+        }
+    }
+
+    // Advances the attempt on a ready key; true when this attempt is over, one way or the other
+    private static boolean step(Attempt attempt, SelectionKey key) {
+        try {
+            if (key.isConnectable()) {
+                attempt.channel.finishConnect();
+                return connected(attempt);
+            }
+            if (key.isWritable()) {
+                attempt.channel.write(attempt.request);
+                if (!attempt.request.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+                return false;
+            }
+            if (key.isReadable()) {
+                return read(attempt);
+            }
+            return false;
+        } catch (IOException e) {
+            // Refused or reset: the server is not up yet
+            close(attempt);
+            return true;
+        }
+    }
+
+    // True when done: a plain TCP probe succeeds on connect, an HTTP probe sends its request first
+    private static boolean connected(Attempt attempt) throws IOException {
+        if (attempt.request == null) {
+            close(attempt);
+            attempt.result.complete("tcp connect to " + attempt.target.getHost() + ":" + port(attempt));
+            return true;
+        }
+        attempt.request.rewind();
+        attempt.response = ByteBuffer.allocate(MAX_RESPONSE_BYTES);
+        attempt.channel.register(SELECTOR, SelectionKey.OP_WRITE, attempt);
+        return false;
+    }
+
+    private static boolean read(Attempt attempt) throws IOException {
+        int read = attempt.channel.read(attempt.response);
+        String head = new String(attempt.response.array(), 0, attempt.response.position(), StandardCharsets.US_ASCII);
+        int lineEnd = head.indexOf("\r\n");
+        if (lineEnd < 0) {
+            if (read >= 0 && attempt.response.hasRemaining()) {
+                return false;
+            }
+            close(attempt);
+            return true;
+        }
+        close(attempt);
+        // "HTTP/1.1 200 OK"
+        String[] status = head.substring(0, lineEnd).split(" ");
+        if (status.length >= 2 && status[0].startsWith("HTTP/") && status[1].length() == 3 && status[1].startsWith("2")) {
+            attempt.result.complete("http " + status[1] + " from " + attempt.target);
+        }
+        return true;
+    }
+
+    private static int port(Attempt attempt) {
+        return attempt.addresses.get(0).getPort();
+    }
+
+    private static void retry(Attempt attempt, PriorityQueue<Attempt> waiting) {
+        close(attempt);
+        attempt.due = System.nanoTime() + attempt.intervalNanos;
+        waiting.add(attempt);
+    }
+
+    private static void close(Attempt attempt) {
+        if (attempt.channel != null) {
+            try {
+                attempt.channel.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+            attempt.channel = null;
+        }
+    }
+}
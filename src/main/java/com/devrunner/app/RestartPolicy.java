@@ -0,0 +1,104 @@
+package com.devrunner.app;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+
+/**
+ * When a project whose process exited on its own is started again. Restarts
+ * back off exponentially while the project keeps failing soon after start,
+ * and stop altogether once too many fall within the crash-loop window, so a
+ * broken build does not spin forever. A run that stayed up for the healthy
+ * time resets the backoff.
+ */
+final class RestartPolicy {
+    static final RestartPolicy NEVER = new RestartPolicy(Mode.NEVER, 1000, 60_000, 5, 300_000, 60_000);
+
+    enum Mode {
+        NEVER,
+        // Only after a non-zero exit code, which includes death by a signal
+        ON_FAILURE,
+        ALWAYS
+    }
+
+    final Mode mode;
+    final long delayMs;
+    final long maxDelayMs;
+    final int maxRestarts;
+    final long windowMs;
+    final long healthyMs;
+
+    private RestartPolicy(Mode mode, long delayMs, long maxDelayMs, int maxRestarts, long windowMs, long healthyMs) {
+        this.mode = mode;
+        this.delayMs = delayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.maxRestarts = maxRestarts;
+        this.windowMs = windowMs;
+        this.healthyMs = healthyMs;
+    }
+
+    /**
+     * Optional "restart" section, per project type:
+     * { "cpp": { "policy": "on-failure", "delayMs": 1000, "maxDelayMs": 60000,
+     *            "maxRestarts": 5, "windowSec": 300, "healthySec": 60 } }
+     */
+    static RestartPolicy fromConfig(JSONObject config, String projectType) {
+        JSONObject restart = config != null ? config.optJSONObject("restart") : null;
+        JSONObject section = restart != null ? restart.optJSONObject(projectType) : null;
+        if (section == null) {
+            return NEVER;
+        }
+        String policy = section.optString("policy", "never");
+        Mode mode;
+        try {
+            mode = Mode.valueOf(policy.toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown restart policy '" + policy + "' for " + projectType
+                + "; expected never, on-failure or always");
+        }
+        long delayMs = Math.max(0, section.optLong("delayMs", NEVER.delayMs));
+        return new RestartPolicy(mode,
+            delayMs,
+            Math.max(delayMs, section.optLong("maxDelayMs", NEVER.maxDelayMs)),
+            Math.max(1, section.optInt("maxRestarts", NEVER.maxRestarts)),
+            TimeUnit.SECONDS.toMillis(Math.max(1, section.optLong("windowSec", NEVER.windowMs / 1000))),
+            TimeUnit.SECONDS.toMillis(Math.max(0, section.optLong("healthySec", NEVER.healthyMs / 1000))));
+    }
+
+    boolean restartsAfter(int exitCode) {
+        return mode == Mode.ALWAYS || (mode == Mode.ON_FAILURE && exitCode != 0);
+    }
+
+    /** Restart history of one project; reset whenever the user launches it by hand. */
+    static final class Tracker {
+        // Restarts since the last run that stayed up for the healthy time
+        private int consecutive;
+        // When the restarts inside the crash-loop window were scheduled
+        private final Deque<Long> recent = new ArrayDeque<>();
+        private int total;
+
+        /** The delay before the next restart, or -1 if the project is crash-looping. */
+        synchronized long next(RestartPolicy policy, long uptimeMs, long now) {
+            if (uptimeMs >= policy.healthyMs) {
+                consecutive = 0;
+            }
+            while (!recent.isEmpty() && now - recent.peekFirst() > policy.windowMs) {
+                recent.pollFirst();
+            }
+            if (recent.size() >= policy.maxRestarts) {
+                return -1;
+            }
+            recent.addLast(now);
+            long delay = policy.delayMs << Math.min(consecutive, 20);
+            consecutive++;
+            total++;
+            return Math.min(delay, policy.maxDelayMs);
+        }
+
+        synchronized int restarts() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,1394 @@
+package com.devrunner.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.JSONObject;
+
+/**
+ * Everything DevRunner does besides drawing windows: configuration, the
+ * launch stages, process supervision, output logging, watch mode and launch
+ * groups. How progress, errors and questions reach the user is up to the
+ * {@link Frontend}, so the Swing window, the headless CLI and the daemon all
+ * drive the same core. Nothing here touches AWT or Swing.
+ */
+public class RunnerCore {
+    // Ids of every known project type, built-in ones first
+    public static final List<String> PROJECTS = ProjectTypes.ids();
+    // Number of trailing log lines included in an error report
+    public static final int ERROR_LOG_LINES = 500;
+    private static final Path CONFIG_PATH = Paths.get("project_paths.json");
+    // A project that is ready at its first output must still be running this long after it
+    private static final long FIRST_OUTPUT_SETTLE_MS = 500;
+
+    /**
+     * The user-facing side of the runner. Unless noted otherwise, methods are
+     * called from launch, reader and watcher threads and must not block for
+     * long, apart from {@link #confirm}.
+     */
+    public interface Frontend {
+        // Runs log batch callbacks; the window hands them to the EDT
+        Executor logExecutor();
+
+        // Whether project output is copied to stdout unless the "log" key "echo" says otherwise;
+        // only frontends whose terminal is where output is read turn it on
+        default boolean echoesOutput() {
+            return false;
+        }
+
+        // Blocks until the user answers; frontends that cannot ask should decline
+        boolean confirm(String message, String title);
+
+        void showError(String title, String message);
+
+        default void showError(String title, String header, LogStore logStore) {
+            StringBuilder message = new StringBuilder(header);
+            logStore.appendTail(message, ERROR_LOG_LINES);
+            showError(title, message.toString());
+        }
+
+        default void showMessage(String title, String message) {
+            System.out.println(title + ": " + message);
+        }
+
+        // Path the user has entered for a project, or null to use the configured one
+        default String projectPath(String project) {
+            return null;
+        }
+
+        default void onLaunchProgress(String project, LaunchEngine.Stage stage, LaunchEngine.Status status) {
+        }
+
+        default void onProcessStateChanged(String project, boolean running) {
+        }
+
+        // A new log store for a project's output, before any line is appended
+        default void onLogStore(String project, LogStore logStore) {
+        }
+
+        // Runs on logExecutor() once per flushed batch
+        default void onLogBatch(LogStore logStore, LogPipeline.Batch batch) {
+        }
+
+        default void onRestartMeasured(String project, long millis, long averageMillis, long count) {
+        }
+
+        // Once per launch of a C or C++ project whose script built something; summary includes the ccache hit rate
+        default void onBuildMeasured(String project, long millis, String summary) {
+        }
+
+        // Once per launch, when the project is found to be ready; how says by which check
+        default void onReady(String project, long millis, String how) {
+        }
+
+        default void onConfigReloaded(JSONObject config) {
+        }
+
+        // Every runnable project under the workspace root, whenever the set changes
+        default void onProjectsDiscovered(List<WorkspaceIndex.Project> projects) {
+        }
+
+        // Runs on the sampler thread after each round of resource samples
+        default void onMetricsSampled(ProcessMetrics metrics) {
+        }
+    }
+
+    private final Frontend frontend;
+    private final Map<String, String> projectPaths = new ConcurrentHashMap<>();
+    // Project types whose path project_paths.json gives; discovery never overrides those
+    private final Set<String> configuredTypes = ConcurrentHashMap.newKeySet();
+    private volatile List<WorkspaceIndex.Project> discovered = List.of();
+    private WorkspaceIndex workspaceIndex;
+    private final ProcessSupervisor supervisor = new ProcessSupervisor();
+    // Every instance name launched so far, for status listings
+    private final Set<String> instances = new ConcurrentSkipListSet<>();
+    private final PortAllocator portAllocator = new PortAllocator();
+    // Ports held by each instance, kept across relaunches and released when it stops
+    private final Map<String, int[]> instancePorts = new ConcurrentHashMap<>();
+    // npm install must not run twice at once in the folder that instances share
+    private final Map<Path, Object> installLocks = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> readySignals = new ConcurrentHashMap<>();
+    // Latest launch of each project, which knows the process it spawned even after that has exited
+    private final Map<String, LaunchEngine.Launch> latestLaunches = new ConcurrentHashMap<>();
+    // How each project's current run was found to be ready, for the time-to-ready report
+    private final Map<String, String> readyVia = new ConcurrentHashMap<>();
+    // System.nanoTime() at which the run became ready, when that was before the ready signal completed
+    private final Map<String, Long> readyAt = new ConcurrentHashMap<>();
+    private final ExecutorService launchExecutor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "project-launch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LaunchTimings launchTimings = new LaunchTimings();
+    private final LaunchEngine launchEngine;
+    // Resolved in the background at startup; launch stages wait for it off the EDT
+    private final CompletableFuture<ToolchainIndex> toolchain;
+    private final InstallFingerprint installFingerprint = new InstallFingerprint(Paths.get("install_fingerprints.json"));
+    private final BuildCache buildCache = new BuildCache(Paths.get("build_cache"));
+    // Cache misses waiting for their build to finish so the artifact can be recorded
+    private final Map<String, BuildCache.Lookup> pendingBuilds = new ConcurrentHashMap<>();
+    // C and C++ build settings of launches that have not spawned their process yet
+    private final Map<String, NativeBuild> nativeBuilds = new ConcurrentHashMap<>();
+    private final Map<String, ProjectWatcher> projectWatchers = new ConcurrentHashMap<>();
+    // Per project: number of hot restarts and their summed edit-to-running time
+    private final Map<String, long[]> restartLatencies = new ConcurrentHashMap<>();
+    private final Map<String, LogStore> logStores = new ConcurrentHashMap<>();
+    // Last progress text per project, for status queries
+    private final Map<String, String> statuses = new ConcurrentHashMap<>();
+    // How a project's last run ended, shown instead of "Stopped" once it is down
+    private final Map<String, String> exitStatuses = new ConcurrentHashMap<>();
+    // Completed once all output of a project's current run has been read
+    private final Map<String, CompletableFuture<Void>> outputClosed = new ConcurrentHashMap<>();
+    private final Map<String, RestartPolicy.Tracker> restartTrackers = new ConcurrentHashMap<>();
+    // Restarts waiting out their backoff; guarded by itself
+    private final Map<String, ScheduledFuture<?>> pendingRestarts = new HashMap<>();
+    private final ScheduledExecutorService restartScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "project-restart");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ProcessMetrics metrics;
+    private volatile JSONObject config = new JSONObject();
+    private volatile OutputRules outputRules = OutputRules.defaults();
+    private ConfigWatcher configWatcher;
+
+    public RunnerCore(Frontend frontend) {
+        this.frontend = frontend;
+        launchEngine = new LaunchEngine(supervisor, launchExecutor, this::onLaunchProgress, launchTimings);
+        toolchain = CompletableFuture.supplyAsync(
+            () -> ToolchainIndex.load(Paths.get("toolchain_index.json"), supervisor, launchExecutor), launchExecutor);
+        supervisor.setListener(new ProcessSupervisor.Listener() {
+            @Override
+            public void onStateChanged(String project, boolean running) {
+                if (!running && !launchEngine.isLaunching(project)) {
+                    String exited = exitStatuses.remove(project);
+                    statuses.put(project, exited != null ? exited : "Stopped");
+                    // A project waiting to be restarted keeps its ports, so its URL stays the same
+                    if (!isRestartPending(project)) {
+                        releasePorts(project);
+                    }
+                }
+                frontend.onProcessStateChanged(project, running);
+            }
+
+            @Override
+            public void onExited(ProcessSupervisor.ManagedProcess managed, int exitCode) {
+                RunnerCore.this.onExited(managed, exitCode);
+            }
+        });
+    }
+
+    // Loads the configuration and picks up later edits to its rules
+    public void start() {
+        start(readConfigAsync());
+    }
+
+    // Takes a config read that was started earlier, so it can overlap other startup work
+    public void start(CompletableFuture<JSONObject> pendingConfig) {
+        loadConfig(pendingConfig);
+        startMetrics();
+        watchConfig();
+        discoverProjects();
+    }
+
+    // Reads and parses project_paths.json on a pool thread; an empty object if there is none
+    public static CompletableFuture<JSONObject> readConfigAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!Files.exists(CONFIG_PATH)) {
+                return new JSONObject();
+            }
+            try {
+                return new JSONObject(Files.readString(CONFIG_PATH));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public void shutdown() {
+        restartScheduler.shutdownNow();
+        if (metrics != null) {
+            metrics.stop();
+        }
+        projectWatchers.values().forEach(ProjectWatcher::close);
+        if (workspaceIndex != null) {
+            workspaceIndex.close();
+        }
+        if (configWatcher != null) {
+            configWatcher.close();
+        }
+        supervisor.shutdown();
+    }
+
+    public ProcessSupervisor getSupervisor() {
+        return supervisor;
+    }
+
+    public ProcessMetrics getMetrics() {
+        return metrics;
+    }
+
+    public LaunchTimings getTimings() {
+        return launchTimings;
+    }
+
+    public JSONObject getConfig() {
+        return config;
+    }
+
+    public String getConfiguredPath(String projectType) {
+        return projectPaths.get(projectType);
+    }
+
+    // A project type, or one of its instances such as "typescript#2"
+    public boolean isProject(String project) {
+        int hash = project.indexOf('#');
+        if (hash < 0) {
+            return PROJECTS.contains(project);
+        }
+        try {
+            return PROJECTS.contains(project.substring(0, hash)) && Integer.parseInt(project.substring(hash + 1)) >= 2;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Instance 1 is named after its type, so one run per project works as it always has
+    public static String instanceName(String projectType, int instance) {
+        return instance <= 1 ? projectType : projectType + "#" + instance;
+    }
+
+    public static String projectTypeOf(String project) {
+        int hash = project.indexOf('#');
+        return hash < 0 ? project : project.substring(0, hash);
+    }
+
+    public static int instanceNumber(String project) {
+        int hash = project.indexOf('#');
+        return hash < 0 ? 1 : Integer.parseInt(project.substring(hash + 1));
+    }
+
+    // Every instance launched since startup, in name order
+    public List<String> getInstances() {
+        return new ArrayList<>(instances);
+    }
+
+    private void loadConfig(CompletableFuture<JSONObject> pendingConfig) {
+        // Default paths relative to jarDevRunner directory
+        for (String projectType : PROJECTS) {
+            projectPaths.put(projectType, ProjectTypes.plan(projectType).getDefaultPath());
+        }
+
+        // Try to load from config file
+        JSONObject loaded = new JSONObject();
+        try {
+            loaded = pendingConfig.join();
+            for (String key : loaded.keySet()) {
+                // Non-string entries are settings sections, not project paths
+                Object value = loaded.get(key);
+                if (value instanceof String) {
+                    projectPaths.put(key, (String) value);
+                    configuredTypes.add(key);
+                }
+            }
+        } catch (CompletionException e) {
+            e.printStackTrace();
+            frontend.showError("Configuration Error", "Error loading config: " + e.getCause().getMessage());
+        }
+        config = loaded;
+
+        try {
+            outputRules = OutputRules.fromConfig(config);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            frontend.showError("Configuration Error",
+                "Error in output rules, using the built-in rules instead: " + e.getMessage());
+        }
+    }
+
+    private void watchConfig() {
+        configWatcher = new ConfigWatcher(CONFIG_PATH, this::reloadConfig);
+        try {
+            configWatcher.start();
+        } catch (IOException e) {
+            // Hot reload is a convenience; the config still loads at startup
+            e.printStackTrace();
+        }
+    }
+
+    // Optional "metrics" section: { "intervalMs": n, "history": n }; the history is fixed at startup
+    private synchronized void startMetrics() {
+        JSONObject metricsConfig = config.optJSONObject("metrics");
+        if (metricsConfig == null) {
+            metricsConfig = new JSONObject();
+        }
+        if (metrics == null) {
+            metrics = new ProcessMetrics(supervisor, PROJECTS,
+                Math.max(2, metricsConfig.optInt("history", ProcessMetrics.DEFAULT_HISTORY)));
+        }
+        long intervalMs = Math.max(100, metricsConfig.optLong("intervalMs", ProcessMetrics.DEFAULT_INTERVAL_MS));
+        metrics.start(intervalMs, frontend::onMetricsSampled);
+    }
+
+    // Shows the last known projects at once and keeps scanning for changes in the background
+    private void discoverProjects() {
+        WorkspaceIndex.Settings settings = WorkspaceIndex.Settings.fromConfig(config);
+        if (!settings.isEnabled()) {
+            return;
+        }
+        workspaceIndex = new WorkspaceIndex(Paths.get("workspace_index.json"), settings, this::onDiscovered);
+        try {
+            workspaceIndex.start();
+        } catch (IOException e) {
+            // Discovery only saves typing; the configured paths still work
+            e.printStackTrace();
+        }
+    }
+
+    // Types without a configured path whose default folder is missing take the first project found
+    private void onDiscovered(List<WorkspaceIndex.Project> projects) {
+        discovered = projects;
+        for (String projectType : PROJECTS) {
+            if (configuredTypes.contains(projectType)
+                    || Files.isDirectory(Paths.get(ProjectTypes.plan(projectType).getDefaultPath()))) {
+                continue;
+            }
+            String path = ProjectTypes.plan(projectType).getDefaultPath();
+            for (WorkspaceIndex.Project project : projects) {
+                if (project.getType().equals(projectType)) {
+                    path = project.getPath().toString();
+                    break;
+                }
+            }
+            projectPaths.put(projectType, path);
+        }
+        frontend.onProjectsDiscovered(projects);
+    }
+
+    public List<WorkspaceIndex.Project> getDiscoveredProjects() {
+        return discovered;
+    }
+
+    private void reloadConfig() {
+        // Runs on the watcher thread; rules compile here and are swapped in whole
+        try {
+            JSONObject reloaded = new JSONObject(Files.readString(CONFIG_PATH));
+            OutputRules rules = OutputRules.fromConfig(reloaded);
+            outputRules = rules;
+            config = reloaded;
+            startMetrics();
+            frontend.onConfigReloaded(reloaded);
+            System.out.println("Reloaded output rules from project_paths.json");
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            frontend.showError("Configuration Error",
+                "project_paths.json changed but could not be applied; keeping the previous rules.\n\n" +
+                e.getMessage());
+        }
+    }
+
+    // Keeps any settings sections from the loaded file and updates the paths
+    public void saveConfig(Map<String, String> paths) throws IOException {
+        JSONObject json = config;
+        for (Map.Entry<String, String> entry : paths.entrySet()) {
+            json.put(entry.getKey(), entry.getValue());
+            projectPaths.put(entry.getKey(), entry.getValue());
+            configuredTypes.add(entry.getKey());
+        }
+        Files.writeString(CONFIG_PATH, json.toString(4));
+    }
+
+    // Every instance of a type runs in the type's folder
+    private Path projectPath(String project) {
+        String projectType = projectTypeOf(project);
+        String entered = frontend.projectPath(projectType);
+        return Paths.get(entered != null ? entered : projectPaths.getOrDefault(projectType, ".")).toAbsolutePath();
+    }
+
+    public boolean setWatching(String project, boolean watching) {
+        ProjectWatcher previous = projectWatchers.remove(project);
+        if (previous != null) {
+            previous.close();
+        }
+        if (!watching) {
+            return true;
+        }
+        Path path = projectPath(project);
+        ProjectWatcher.Settings settings;
+        try {
+            settings = ProjectWatcher.Settings.fromConfig(config, projectTypeOf(project));
+        } catch (RuntimeException e) {
+            frontend.showError("Watch Error", e.getMessage());
+            return false;
+        }
+        ProjectWatcher watcher = new ProjectWatcher(path, project, settings, firstEvent -> hotRestart(project, firstEvent));
+        try {
+            watcher.start();
+        } catch (IOException e) {
+            frontend.showError("Watch Error", "Could not watch " + path + ":\n" + e.getMessage());
+            return false;
+        }
+        projectWatchers.put(project, watcher);
+        return true;
+    }
+
+    public boolean isWatching(String project) {
+        return projectWatchers.containsKey(project);
+    }
+
+    // Runs on the watcher thread once a burst of source edits has settled
+    private void hotRestart(String project, long firstEvent) {
+        System.out.println("Sources of " + project + " changed, restarting");
+        launchProject(project).started()
+            .thenCompose(ignored -> readySignals.get(project))
+            .thenRun(() -> {
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstEvent);
+                long[] stats = restartLatencies.computeIfAbsent(project, p -> new long[2]);
+                long count;
+                long total;
+                synchronized (stats) {
+                    count = ++stats[0];
+                    total = stats[1] += millis;
+                }
+                System.out.println(project + " running " + millis + " ms after edit");
+                frontend.onRestartMeasured(project, millis, total / count, count);
+            });
+    }
+
+    private void installStage(LaunchEngine.Launch launch) throws Exception {
+        Path projectPath = launch.getPath();
+        Map<String, String> env = launch.getBuilder().environment();
+        synchronized (installLocks.computeIfAbsent(projectPath, path -> new Object())) {
+            // Install only when node_modules is missing or package.json or a lockfile has changed
+            if (Files.exists(projectPath.resolve("package.json")) && installFingerprint.needsInstall(projectPath)) {
+                installNodeModules(launch, projectPath, env);
+            }
+        }
+    }
+
+    private void installNodeModules(LaunchEngine.Launch launch, Path projectPath, Map<String, String> env)
+            throws Exception {
+
+        ToolchainIndex.Tool npm = toolchain.join().find("npm");
+        if (npm == null) {
+            throw new IOException("npm not found. Please install Node.js from https://nodejs.org/");
+        }
+        boolean isWindows = System.getProperty("os.name").toLowerCase().contains("windows");
+        ProcessBuilder npmInstall = isWindows
+            // npm is a .cmd shim on Windows, so let cmd run it
+            ? new ProcessBuilder("cmd", "/c", npm.getPath(), "install")
+            : new ProcessBuilder(npm.getPath(), "install");
+        npmInstall.directory(projectPath.toFile());
+        npmInstall.redirectErrorStream(true);
+        npmInstall.environment().putAll(env);
+        int exitCode = launch.runHelper("npm install", npmInstall, 5, TimeUnit.MINUTES,
+            process -> startOutputMonitor(process, "npm install"));
+        if (exitCode != 0) {
+            throw new IOException(exitCode < 0
+                ? "npm install did not finish within 5 minutes"
+                : "npm install failed with exit code " + exitCode);
+        }
+        installFingerprint.record(projectPath);
+    }
+
+    private void runScript(LaunchEngine.Launch launch, String scriptPath) throws Exception {
+        boolean isWindows = System.getProperty("os.name").toLowerCase().contains("windows");
+
+        if (!isWindows && !Files.isExecutable(Paths.get(scriptPath))) {
+            // Make script executable on Unix systems; only when it is not, since even a no-op
+            // chmod is a change that would make watch mode restart the project again
+            ProcessBuilder chmodPb = new ProcessBuilder("chmod", "+x", scriptPath);
+            chmodPb.directory(new File(scriptPath).getParentFile());
+            chmodPb.environment().putAll(launch.getBuilder().environment());
+            launch.runHelper("chmod", chmodPb, 5, TimeUnit.SECONDS, null);
+        } else if (isWindows) {
+            // On Windows, ensure PowerShell scripts can run
+            // This is usually handled by setting ExecutionPolicy when invoking PowerShell
+            if (scriptPath.toLowerCase().endsWith(".ps1")) {
+                // Check if script exists
+                if (!Files.exists(Paths.get(scriptPath))) {
+                    throw new IOException("PowerShell script not found: " + scriptPath);
+                }
+            }
+        }
+    }
+
+    private boolean checkDependency(String command) {
+        return toolchain.join().has(command);
+    }
+
+    private boolean isWSLAvailable() {
+        if (!System.getProperty("os.name").toLowerCase().contains("windows")) {
+            return false;
+        }
+
+        try {
+            ProcessBuilder pb = new ProcessBuilder("wsl", "--status");
+            Process process = supervisor.startHelper("wsl --status", pb).getProcess();
+            int exitCode = process.waitFor();
+            return exitCode == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    public Map<String, LaunchGroup> loadGroups() {
+        return LaunchGroup.fromConfig(config, PROJECTS);
+    }
+
+    // The listener hears about each project as soon as it is ready or has failed
+    public CompletableFuture<List<LaunchGroup.Result>> launchGroup(LaunchGroup group, LaunchGroup.Listener listener) {
+        return group.run(this::launchForGroup, launchExecutor, result -> {
+            System.out.println("Launch group " + group.getName() + ": " + result);
+            listener.onResult(result);
+        });
+    }
+
+    /**
+     * Launches instances 1 to count of a project type, each with its own
+     * ports, and stops any higher-numbered instances still running. With a
+     * count of 1 this is a plain launch.
+     */
+    public List<LaunchEngine.Launch> launchInstances(String projectType, int count) {
+        for (String instance : instances) {
+            if (projectTypeOf(instance).equals(projectType) && instanceNumber(instance) > count) {
+                stopProject(instance);
+            }
+        }
+        List<LaunchEngine.Launch> launches = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            launches.add(launchProject(instanceName(projectType, i), count > 1));
+        }
+        return launches;
+    }
+
+    // Completes once the project has started and reported ready
+    private CompletableFuture<Void> launchForGroup(String projectType) {
+        return launchProject(projectType).started()
+            .thenCompose(ignored -> readySignals.get(projectType));
+    }
+
+    // Project readiness: a dev server is ready once its URL is printed, every
+    // other project as soon as it produces output; helper processes never are
+    private static boolean readyOnUrl(String projectType) {
+        LaunchPlan plan = ProjectTypes.plan(projectType);
+        return plan != null && plan.isReadyOnUrl();
+    }
+
+    // Instances after the first get their own ports, and so does any instance that already has some
+    public LaunchEngine.Launch launchProject(String project) {
+        return launchProject(project, instanceNumber(project) > 1 || instancePorts.containsKey(project));
+    }
+
+    // Launching by hand starts the restart backoff over
+    private LaunchEngine.Launch launchProject(String project, boolean withPorts) {
+        cancelRestart(project);
+        return startLaunch(project, withPorts);
+    }
+
+    private LaunchEngine.Launch startLaunch(String project, boolean withPorts) {
+        String projectType = projectTypeOf(project);
+        // The stages look the plan up again and again; an unknown id is turned away here, once
+        if (ProjectTypes.plan(projectType) == null) {
+            throw new IllegalArgumentException("Unknown project type: " + projectType);
+        }
+        instances.add(project);
+        // Each step runs on a launch thread; the frontend hears about every stage
+        LinkedHashMap<LaunchEngine.Stage, LaunchEngine.StageAction> stages = new LinkedHashMap<>();
+        stages.put(LaunchEngine.Stage.VERIFY, this::verifyStage);
+        stages.put(LaunchEngine.Stage.ENVIRONMENT, launch -> environmentStage(launch, withPorts));
+        stages.put(LaunchEngine.Stage.PERMISSIONS, this::scriptStage);
+        if (ProjectTypes.plan(projectType).installsNodeModules()) {
+            stages.put(LaunchEngine.Stage.INSTALL, this::installStage);
+        }
+        BuildCache.Spec cacheSpec = BuildCache.Spec.fromConfig(config, projectType);
+        if (cacheSpec != null) {
+            stages.put(LaunchEngine.Stage.CACHE, launch -> cacheStage(launch, cacheSpec));
+        }
+        stages.put(LaunchEngine.Stage.START, this::startStage);
+        LaunchTimings.Span toReady = launchTimings.start(project, "launch to ready");
+        LaunchEngine.Launch launch = launchEngine.launch(project, stages);
+        latestLaunches.put(project, launch);
+        launch.started()
+            .thenCompose(ignored -> readySignals.get(project))
+            .thenRun(() -> {
+                Long at = readyAt.get(project);
+                long millis = at != null ? toReady.endAt(at) : toReady.end();
+                String how = readyVia.getOrDefault(project, "output");
+                statuses.put(project, "Running, ready in " + millis + " ms");
+                System.out.println(project + " ready " + millis + " ms after launch (" + how + ")");
+                frontend.onReady(project, millis, how);
+            });
+        return launch;
+    }
+
+    // The project's most recent launch, or null if it has never been launched
+    public LaunchEngine.Launch getLaunch(String project) {
+        return latestLaunches.get(project);
+    }
+
+    // Completes once the project's current run has reported ready
+    public CompletableFuture<Void> readySignal(String projectType) {
+        CompletableFuture<Void> ready = readySignals.get(projectType);
+        return ready != null ? ready : CompletableFuture.failedFuture(new IllegalStateException(projectType + " has not been started"));
+    }
+
+    private void verifyStage(LaunchEngine.Launch launch) throws LaunchEngine.AbortedException {
+        String projectType = launch.getProject();
+        Path path = projectPath(projectType);
+
+        // Verify the path exists and appropriate script is available
+        if (!verifyScriptExists(projectTypeOf(projectType), path)) {
+            throw new LaunchEngine.AbortedException("Script check failed for " + projectType);
+        }
+
+        ProcessBuilder pb = new ProcessBuilder();
+        pb.directory(path.toFile());
+        // Optional "log" key "separateStderr" (default true); false merges stderr into stdout
+        JSONObject logConfig = config.optJSONObject("log");
+        pb.redirectErrorStream(logConfig != null && !logConfig.optBoolean("separateStderr", true));
+        launch.setPath(path);
+        launch.setBuilder(pb);
+    }
+
+    private void environmentStage(LaunchEngine.Launch launch, boolean withPorts) throws IOException {
+        // Known tool directories first, then the inherited PATH; built once by the toolchain index
+        Map<String, String> env = launch.getBuilder().environment();
+        boolean isWindows = System.getProperty("os.name").toLowerCase().contains("windows");
+        env.put(isWindows ? "Path" : "PATH", toolchain.join().getSearchPath()); // Windows uses "Path" not "PATH"
+        env.put("DEVRUNNER_INSTANCE", String.valueOf(instanceNumber(launch.getProject())));
+        if (withPorts) {
+            reservePorts(launch.getProject(), env);
+        }
+
+        // Missing tools are only reported; run scripts sometimes bring their own
+        for (ProjectType.Dependency dependency : ProjectTypes.plan(projectTypeOf(launch.getProject())).getDependencies()) {
+            if (!checkDependency(dependency.getTool())) {
+                System.out.println(launch.getProject() + ": " + dependency.getTool() + " (" + dependency.getName()
+                    + ") was not found on the search path");
+            }
+        }
+        if (ProjectTypes.plan(projectTypeOf(launch.getProject())).buildsNativeCode()) {
+            prepareNativeBuild(launch);
+        }
+
+        // Set JAVA_HOME if not set
+        if (isWindows && env.get("JAVA_HOME") == null) {
+            String javaHome = System.getenv("ProgramFiles") + "\\Java\\jdk-17";
+            if (Files.exists(Paths.get(javaHome))) {
+                env.put("JAVA_HOME", javaHome);
+            }
+        }
+    }
+
+    // A relaunched instance keeps its ports, so its URL stays the same
+    private void reservePorts(String project, Map<String, String> env) throws IOException {
+        PortAllocator.Settings settings = PortAllocator.Settings.fromConfig(config, projectTypeOf(project));
+        int[] ports = instancePorts.get(project);
+        if (ports == null || ports.length != settings.variables.size()) {
+            releasePorts(project);
+            ports = portAllocator.reserve(settings);
+            instancePorts.put(project, ports);
+        }
+        StringBuilder assigned = new StringBuilder();
+        for (int i = 0; i < ports.length; i++) {
+            env.put(settings.variables.get(i), String.valueOf(ports[i]));
+            assigned.append(i > 0 ? ", " : "").append(settings.variables.get(i)).append('=').append(ports[i]);
+        }
+        System.out.println(project + ": " + assigned);
+    }
+
+    // Parallel jobs, ccache and Ninja for the script's build, so no run.sh has to ask for them
+    private void prepareNativeBuild(LaunchEngine.Launch launch) throws IOException {
+        String project = launch.getProject();
+        NativeBuild.Settings settings = NativeBuild.Settings.fromConfig(config);
+        if (!settings.enabled) {
+            return;
+        }
+        // A project pinned to some cores builds with one job per pinned core
+        Scheduling scheduling = Scheduling.fromConfig(config, projectTypeOf(project));
+        int cores = scheduling != null && scheduling.cpuCount() > 0
+            ? scheduling.cpuCount()
+            : Runtime.getRuntime().availableProcessors();
+        NativeBuild build = NativeBuild.prepare(settings, launch.getPath(), launch.getBuilder().environment(),
+            toolchain.join(), cores);
+        System.out.println(project + ": build with " + build.jobs + " jobs"
+            + (build.applied.contains("ccache") ? ", ccache" : "")
+            + (build.applied.contains("Ninja") ? ", Ninja" : ""));
+        if (!build.skipped.isEmpty()) {
+            System.out.println(project + ": not used: " + String.join(", ", build.skipped));
+        }
+        discardNativeBuild(nativeBuilds.put(project, build));
+    }
+
+    private static void discardNativeBuild(NativeBuild build) {
+        if (build != null) {
+            build.discard();
+        }
+    }
+
+    // Runs on a launch thread for as long as the build takes
+    private void measureBuild(ProcessSupervisor.ManagedProcess managed, NativeBuild build,
+                              LaunchTimings.Span span, long spawnNanos) {
+        String project = managed.getProject();
+        long builtAt;
+        try {
+            builtAt = build.awaitBuild(managed.getHandle(), spawnNanos);
+        } catch (InterruptedException e) {
+            span.discard();
+            build.discard();
+            return;
+        }
+        if (builtAt < 0) {
+            // Nothing was built, such as when the script starts a program built earlier, or the
+            // script exited before its build finished
+            span.discard();
+            build.discard();
+            return;
+        }
+        NativeBuild.Result result = build.result(span.endAt(builtAt));
+        String summary = result.toString();
+        System.out.println(project + " " + summary);
+        if (supervisor.get(project) == managed && managed.getProcess().isAlive()) {
+            statuses.put(project, "Running, " + summary);
+        }
+        frontend.onBuildMeasured(project, result.millis, summary);
+    }
+
+    private void releasePorts(String project) {
+        int[] ports = instancePorts.remove(project);
+        if (ports != null) {
+            portAllocator.release(ports);
+        }
+    }
+
+    private void scriptStage(LaunchEngine.Launch launch) throws Exception {
+        ProcessBuilder pb = launch.getBuilder();
+        Path path = launch.getPath();
+        LaunchPlan plan = ProjectTypes.plan(projectTypeOf(launch.getProject()));
+
+        if (LaunchPlan.WINDOWS) {
+            // On Windows, we need to use PowerShell to run the scripts
+            Path scriptPath = path.resolve(plan.getWindowsScript());
+            if (Files.exists(scriptPath)) {
+                pb.command(plan.windowsCommand(scriptPath));
+            } else if (!plan.hasWslFallback()) {
+                throw new IOException("PowerShell script not found for " + plan.getDisplayName()
+                    + " project. Please ensure " + plan.getWindowsScript() + " exists in " + path);
+            } else if (Files.exists(path.resolve(plan.getUnixScript()))) {
+                // Confirm with the user before trying to use WSL
+                boolean useWsl = frontend.confirm(
+                    "Windows PowerShell script (" + plan.getWindowsScript() + ") not found, but "
+                        + plan.getUnixScript() + " exists.\n" +
+                    "Would you like to try using Windows Subsystem for Linux (WSL) to run it?",
+                    "Script Not Found");
+                if (!useWsl) {
+                    throw new IOException("PowerShell script not found, and user declined to use WSL.");
+                }
+                // Try to use Windows Subsystem for Linux to run the shell script
+                pb.command(plan.wslCommand(path));
+            } else {
+                throw new IOException("Neither " + plan.getWindowsScript() + " nor " + plan.getUnixScript()
+                    + " was found in " + path);
+            }
+        } else {
+            // Unix systems use shell scripts
+            runScript(launch, path.resolve(plan.getUnixScript()).toString());
+            pb.command(plan.getUnixCommand());
+        }
+    }
+
+    private void cacheStage(LaunchEngine.Launch launch, BuildCache.Spec spec) throws IOException {
+        String projectType = launch.getProject();
+        BuildCache.Lookup lookup = buildCache.lookup(launch.getPath(), spec);
+        if (lookup.isHit()) {
+            // Same sources as a recorded build: skip the run script and start the artifact directly
+            System.out.println("Build cache hit for " + projectType + ", running " + String.join(" ", spec.getCommand()));
+            launch.getBuilder().command(spec.getCommand());
+            pendingBuilds.remove(projectType);
+            discardNativeBuild(nativeBuilds.remove(projectType));
+        } else {
+            pendingBuilds.put(projectType, lookup);
+        }
+    }
+
+    // Runs once the script of a cache miss has exited cleanly, by which time its build is done
+    private void recordBuild(String projectType, BuildCache.Lookup lookup) {
+        try {
+            if (buildCache.record(lookup)) {
+                System.out.println("Recorded " + projectType + " build in the build cache");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void startStage(LaunchEngine.Launch launch) throws IOException {
+        String projectType = launch.getProject();
+        exitStatuses.remove(projectType);
+        applyScheduling(launch);
+
+        // Start the process and monitor output, replacing any previous run of this project
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        readyVia.remove(projectType);
+        readyAt.remove(projectType);
+        CompletableFuture<Void> previous = readySignals.put(projectType, ready);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        BuildCache.Lookup pendingBuild = pendingBuilds.remove(projectType);
+        NativeBuild nativeBuild = nativeBuilds.remove(projectType);
+        long spawnNanos = System.nanoTime();
+        LaunchTimings.Span spawn = launchTimings.start(projectType, "spawn");
+        LaunchTimings.Span build = nativeBuild != null ? launchTimings.start(projectType, "build") : null;
+        try {
+            supervisor.start(projectType, launch.getBuilder(), managed -> {
+                launch.setProcess(managed);
+                spawn.end();
+                OutputMonitor monitor = startOutputMonitor(managed.getProcess(), projectType,
+                    !launch.getBuilder().redirectErrorStream());
+                outputClosed.put(projectType, monitor.closed);
+                if (pendingBuild != null) {
+                    // A failed or stopped script may have left a half-written artifact behind
+                    managed.getProcess().onExit().thenAcceptAsync(process -> {
+                        if (process.exitValue() == 0) {
+                            recordBuild(projectType, pendingBuild);
+                        }
+                    }, launchExecutor);
+                }
+                if (nativeBuild != null) {
+                    launchExecutor.execute(() -> measureBuild(managed, nativeBuild, build, spawnNanos));
+                }
+            });
+        } catch (IOException e) {
+            if (build != null) {
+                build.discard();
+            }
+            discardNativeBuild(nativeBuild);
+            ready.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Optional CPU affinity, nice level and I/O priority, inherited by the whole process tree
+    private void applyScheduling(LaunchEngine.Launch launch) {
+        Scheduling scheduling = Scheduling.fromConfig(config, projectTypeOf(launch.getProject()));
+        if (scheduling == null) {
+            return;
+        }
+        ProcessBuilder pb = launch.getBuilder();
+        List<String> skipped = new ArrayList<>();
+        pb.command(scheduling.wrap(pb.command(), toolchain.join(), skipped));
+        System.out.println(launch.getProject() + ": scheduling " + scheduling);
+        if (!skipped.isEmpty()) {
+            System.out.println(launch.getProject() + ": not applied on this system: " + String.join(", ", skipped));
+        }
+    }
+
+    private void onLaunchProgress(String projectType, LaunchEngine.Stage stage,
+                                  LaunchEngine.Status status, Throwable failure) {
+        switch (status) {
+            case RUNNING:
+                statuses.put(projectType, stage.getDescription() + "...");
+                break;
+            case STARTED:
+                statuses.put(projectType, "Running");
+                break;
+            case CANCELLED:
+                statuses.put(projectType, "Cancelled");
+                break;
+            case FAILED:
+                statuses.put(projectType, "Failed");
+                break;
+        }
+        if (status == LaunchEngine.Status.FAILED || status == LaunchEngine.Status.CANCELLED) {
+            discardNativeBuild(nativeBuilds.remove(projectType));
+            if (!supervisor.isRunning(projectType)) {
+                releasePorts(projectType);
+            }
+        }
+        frontend.onLaunchProgress(projectType, stage, status);
+        // A launch that could not spawn because DevRunner is exiting is not worth an error report
+        if (status == LaunchEngine.Status.FAILED && !(failure instanceof LaunchEngine.AbortedException)
+                && !supervisor.isShuttingDown()) {
+            showLaunchError(projectType, failure);
+        }
+    }
+
+    // Short human-readable state: a launch stage, Running, Stopped, Failed or Cancelled
+    public String getStatus(String projectType) {
+        return statuses.getOrDefault(projectType, "Stopped");
+    }
+
+    public boolean isLaunching(String projectType) {
+        return launchEngine.isLaunching(projectType);
+    }
+
+    public void stopProject(String projectType) {
+        boolean restartPending = cancelRestart(projectType);
+        if (!launchEngine.cancel(projectType) && !supervisor.stop(projectType) && restartPending) {
+            // Stopped while waiting out the backoff, with no process left to report it
+            releasePorts(projectType);
+            statuses.put(projectType, "Stopped");
+            frontend.onProcessStateChanged(projectType, false);
+        }
+    }
+
+    public boolean isRestartPending(String project) {
+        synchronized (pendingRestarts) {
+            return pendingRestarts.containsKey(project);
+        }
+    }
+
+    // Drops any scheduled restart and the restart history; true if a restart was pending
+    private boolean cancelRestart(String project) {
+        restartTrackers.remove(project);
+        ScheduledFuture<?> pending;
+        synchronized (pendingRestarts) {
+            pending = pendingRestarts.remove(project);
+        }
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        return pending != null;
+    }
+
+    // Runs on the process reaper thread when a project's main process exits on its own
+    private void onExited(ProcessSupervisor.ManagedProcess managed, int exitCode) {
+        String project = managed.getProject();
+        long now = System.currentTimeMillis();
+        String exit = PostMortem.describeExit(exitCode);
+        RestartPolicy policy = restartPolicy(project);
+        String outcome = null;
+        long delay = -1;
+        if (policy.restartsAfter(exitCode)) {
+            RestartPolicy.Tracker tracker = restartTrackers.computeIfAbsent(project, p -> new RestartPolicy.Tracker());
+            delay = tracker.next(policy, now - managed.getStartedAt(), now);
+            outcome = delay >= 0
+                ? "restarting in " + formatDelay(delay)
+                : "crash loop, not restarting after " + tracker.restarts() + " restarts";
+        }
+        if (outcome != null || exitCode != 0) {
+            exitStatuses.put(project, outcome != null ? exit + ", " + outcome : exit);
+        }
+        System.out.println(project + ": " + exit + (outcome != null ? ", " + outcome : ""));
+
+        // Captured now, before a restart replaces the run's log store and resets its peaks
+        LogStore logStore = logStores.get(project);
+        if (exitCode != 0) {
+            PostMortem.Run run = new PostMortem.Run(managed, exitCode, now,
+                metrics != null ? metrics.series(project) : null, outcome != null ? outcome : "stopped");
+            CompletableFuture<Void> closed = outputClosed.getOrDefault(project, CompletableFuture.completedFuture(null));
+            launchExecutor.execute(() -> writePostMortem(run, logStore, closed));
+        }
+        if (delay >= 0) {
+            scheduleRestart(project, delay);
+        } else if (outcome != null) {
+            frontend.showError("Crash Loop", project + " keeps exiting soon after it starts and will not be "
+                + "restarted again until you launch it.\n" + exit + "\n\nRecent output:\n", logStore);
+        }
+    }
+
+    private RestartPolicy restartPolicy(String project) {
+        try {
+            return RestartPolicy.fromConfig(config, projectTypeOf(project));
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage() + "; not restarting " + project);
+            return RestartPolicy.NEVER;
+        }
+    }
+
+    private void scheduleRestart(String project, long delayMs) {
+        synchronized (pendingRestarts) {
+            ScheduledFuture<?>[] self = new ScheduledFuture<?>[1];
+            self[0] = restartScheduler.schedule(() -> {
+                synchronized (pendingRestarts) {
+                    // Registered as launching before it stops being pending, so waiters never see a gap
+                    if (pendingRestarts.get(project) == self[0]) {
+                        startLaunch(project, instanceNumber(project) > 1 || instancePorts.containsKey(project));
+                        pendingRestarts.remove(project);
+                    }
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+            pendingRestarts.put(project, self[0]);
+        }
+    }
+
+    private static String formatDelay(long millis) {
+        return millis < 1000 ? millis + " ms" : (millis + 500) / 1000 + " s";
+    }
+
+    // Waits briefly for the last output of the run so the bundle includes the lines that explain the exit
+    private void writePostMortem(PostMortem.Run run, LogStore logStore, CompletableFuture<Void> closed) {
+        PostMortem.Settings settings = PostMortem.Settings.fromConfig(config);
+        if (!settings.enabled) {
+            return;
+        }
+        try {
+            closed.get(2, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // Write what has arrived so far
+        }
+        try {
+            Path dir = PostMortem.write(settings, run, logStore);
+            System.out.println(run.project + ": post-mortem written to " + dir);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void showLaunchError(String projectType, Throwable e) {
+        e.printStackTrace();
+        boolean isWindows = System.getProperty("os.name").toLowerCase().contains("windows");
+        String platformSpecificHelp = isWindows ?
+            "\nOn Windows, make sure to have:\n" +
+            "- PowerShell scripts (.ps1) or WSL for Linux shell scripts.\n" +
+            "- PowerShell execution policy that allows scripts (Set-ExecutionPolicy RemoteSigned).\n" :
+            "\nOn macOS/Linux, make sure run.sh has execute permissions (chmod +x run.sh).\n";
+
+        frontend.showError("Error",
+            "Error running " + projectType + " project:\n" + e.getMessage() +
+            platformSpecificHelp +
+            "\n\nMake sure all required tools are installed:\n" +
+            "- C++: " + (isWindows ? "MSYS2 with mingw-w64-x86_64-gcc, mingw-w64-x86_64-cmake" : "Compiler (gcc/clang) and CMake") + "\n" +
+            "- TypeScript: Node.js and npm\n" +
+            "- Python: Python 3.9 or later\n" +
+            "- Java: JDK 17 or later");
+    }
+
+    // Output of the project's latest run, or null if it has not produced any yet
+    public LogStore getLogStore(String projectType) {
+        return logStores.get(projectType);
+    }
+
+    private LogStore createLogStore(String projectType) {
+        // Optional "log" section: { "maxLines": n, "maxBytes": n, "spill": true, "spillDir": "logs" }
+        JSONObject logConfig = config.optJSONObject("log");
+        int maxLines = LogStore.DEFAULT_MAX_LINES;
+        long maxBytes = LogStore.DEFAULT_MAX_BYTES;
+        Path spillDir = null;
+        if (logConfig != null) {
+            maxLines = logConfig.optInt("maxLines", maxLines);
+            maxBytes = logConfig.optLong("maxBytes", maxBytes);
+            if (logConfig.optBoolean("spill", false)) {
+                spillDir = Paths.get(logConfig.optString("spillDir", "logs"));
+            }
+        }
+        LogStore store = new LogStore(projectType, maxLines, maxBytes, spillDir);
+        LogStore previous = logStores.put(projectType, store);
+        if (previous != null) {
+            previous.close();
+        }
+        frontend.onLogStore(projectType, store);
+        return store;
+    }
+
+    private LogPipeline createLogPipeline(String projectType, LogStore logStore) {
+        // Optional "log" keys: "flushIntervalMs", "batchLines", "maxPendingLines", "echo"
+        JSONObject logConfig = config.optJSONObject("log");
+        if (logConfig == null) {
+            logConfig = new JSONObject();
+        }
+        return new LogPipeline(projectType, logStore,
+            batch -> {
+                frontend.onLogBatch(logStore, batch);
+                if (batch.error) {
+                    frontend.showError(batch.source + " Error", "", logStore);
+                }
+            },
+            frontend.logExecutor(),
+            logConfig.optLong("flushIntervalMs", LogPipeline.DEFAULT_FLUSH_INTERVAL_MS),
+            logConfig.optInt("batchLines", LogPipeline.DEFAULT_BATCH_LINES),
+            logConfig.optInt("maxPendingLines", LogPipeline.DEFAULT_MAX_PENDING),
+            logConfig.optBoolean("echo", frontend.echoesOutput()));
+    }
+
+    // Compressed record of the run for later searches, or null when disabled or unavailable
+    private SessionLog createSessionLog(String projectType) {
+        SessionLog.Settings settings = SessionLog.Settings.fromConfig(config);
+        if (!settings.isEnabled()) {
+            return null;
+        }
+        try {
+            return SessionLog.create(settings.getDirectory(), projectType, settings.getMaxRuns());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private void startOutputMonitor(Process process, String projectType) {
+        startOutputMonitor(process, projectType, false);
+    }
+
+    // With separate streams stderr gets its own reader, and only its lines count as errors
+    private OutputMonitor startOutputMonitor(Process process, String projectType, boolean separateStreams) {
+        OutputMonitor monitor = new OutputMonitor(process, projectType, separateStreams);
+        supervisor.submitReader(projectType, () -> monitor.read(process.getInputStream(), false));
+        if (separateStreams) {
+            supervisor.submitReader(projectType + "-stderr", () -> monitor.read(process.getErrorStream(), true));
+        }
+        return monitor;
+    }
+
+    // Output of one process, fed by one reader thread per stream
+    private final class OutputMonitor {
+        private final Process process;
+        private final String projectType;
+        private final boolean separateStreams;
+        private final LogStore logStore;
+        private final LogPipeline pipeline;
+        private final SessionLog sessionLog;
+        private final AtomicBoolean hasError = new AtomicBoolean();
+        private final AtomicBoolean outputSeen = new AtomicBoolean();
+        private final AtomicBoolean settling = new AtomicBoolean();
+        // The last reader to finish closes the run's logs
+        private final AtomicInteger openStreams;
+        final CompletableFuture<Void> closed = new CompletableFuture<>();
+
+        private final CompletableFuture<Void> ready;
+        private final boolean readyOnUrl;
+        // Null unless a probe decides readiness instead of the output
+        private final ReadinessProbe.Settings probeSettings;
+        private final AtomicBoolean probeStarted = new AtomicBoolean();
+        private final LaunchTimings.Span firstOutput;
+        private final LaunchTimings.Span urlDetected;
+
+        OutputMonitor(Process process, String projectType, boolean separateStreams) {
+            this.process = process;
+            this.projectType = projectType;
+            this.separateStreams = separateStreams;
+            logStore = createLogStore(projectType);
+            pipeline = createLogPipeline(projectType, logStore);
+            sessionLog = createSessionLog(projectType);
+            openStreams = new AtomicInteger(separateStreams ? 2 : 1);
+
+            // Only a project's main process is timed; helpers such as npm install have no ready signal
+            CompletableFuture<Void> readySignal = readySignals.get(projectType);
+            ready = readySignal != null ? readySignal : new CompletableFuture<>();
+            readyOnUrl = readyOnUrl(projectTypeOf(projectType));
+            firstOutput = readySignal != null ? launchTimings.start(projectType, "first output") : null;
+            urlDetected = readySignal != null && readyOnUrl
+                ? launchTimings.start(projectType, "url detected")
+                : null;
+
+            probeSettings = readySignal != null ? probeSettings(projectType, readyOnUrl) : null;
+            if (probeSettings != null && probeSettings.port > 0) {
+                startProbe(probeSettings.target(null));
+            }
+        }
+
+        // Log readiness is the fallback when nothing tells the probe where to connect
+        private ReadinessProbe.Settings probeSettings(String projectType, boolean readyOnUrl) {
+            ReadinessProbe.Settings settings;
+            try {
+                settings = ReadinessProbe.Settings.fromConfig(config, projectTypeOf(projectType));
+            } catch (RuntimeException e) {
+                System.err.println(e.getMessage() + "; using the output to detect readiness");
+                return null;
+            }
+            if (!settings.probes()) {
+                return null;
+            }
+            if (settings.port <= 0 && !readyOnUrl) {
+                System.err.println(projectType + " has no readiness port configured; using the output to detect readiness");
+                return null;
+            }
+            // An instance listens on the first port it was given rather than the declared one
+            int[] ports = instancePorts.get(projectType);
+            return ports != null && settings.port > 0 ? settings.withPort(ports[0]) : settings;
+        }
+
+        private void startProbe(URI target) {
+            if (!probeStarted.compareAndSet(false, true)) {
+                return;
+            }
+            LaunchTimings.Span answering = launchTimings.start(projectType, "server answering");
+            CompletableFuture<String> probe = ReadinessProbe.probe(probeSettings, target);
+            // A relaunch cancels the ready signal and an exit fails it; either way stop probing
+            ready.whenComplete((ignored, failure) -> probe.cancel(false));
+            probe.whenComplete((how, failure) -> {
+                if (failure == null) {
+                    answering.end();
+                    readyVia.put(projectType, how);
+                    ready.complete(null);
+                } else if (!(failure instanceof CancellationException)) {
+                    System.err.println(projectType + " did not become ready: " + failure.getMessage());
+                    ready.completeExceptionally(failure);
+                }
+            });
+        }
+
+        // Ready at the first output, unless the process is gone shortly after it, such as a
+        // script that prints an error and exits; the ready time is still that of the output
+        private void settle() {
+            long outputAt = System.nanoTime();
+            process.onExit().copy().orTimeout(FIRST_OUTPUT_SETTLE_MS, TimeUnit.MILLISECONDS)
+                .whenComplete((exited, timedOut) -> {
+                    if (exited == null) {
+                        if (!ready.isDone()) {
+                            readyVia.put(projectType, "first output");
+                            readyAt.put(projectType, outputAt);
+                            ready.complete(null);
+                        }
+                    } else {
+                        String exit = PostMortem.describeExit(exited.exitValue());
+                        ready.completeExceptionally(new IOException(Character.toLowerCase(exit.charAt(0))
+                            + exit.substring(1) + " right after its first output"));
+                    }
+                });
+        }
+
+        void read(InputStream in, boolean fromStderr) {
+            try (in) {
+                OutputReader.read(in, line -> onLine(line, fromStderr));
+            } catch (IOException e) {
+                e.printStackTrace();
+                if (!hasError.get()) {
+                    frontend.showError("Error", "Error reading " + projectType + " output:\n" +
+                        e.getMessage() + "\n\nRecent output:\n", logStore);
+                }
+            } finally {
+                if (openStreams.decrementAndGet() == 0) {
+                    // Output ended before the project ever reported ready
+                    ready.completeExceptionally(new IOException("exited before it was ready"));
+                    pipeline.close();
+                    logStore.close();
+                    if (sessionLog != null) {
+                        synchronized (sessionLog) {
+                            sessionLog.close();
+                        }
+                    }
+                    closed.complete(null);
+                }
+            }
+        }
+
+        private void onLine(OutputReader.Line line, boolean fromStderr) {
+            // One allocation-free pass over the raw line tags it for every rule below;
+            // the classifier is looked up per line so rule reloads apply immediately
+            int tags = outputRules.classifierFor(projectTypeOf(projectType)).classify(line);
+            if (separateStreams) {
+                // The stream decides what is an error; keywords only pick which stderr lines raise the dialog
+                tags = fromStderr
+                    ? tags | LineClassifier.ERROR
+                    : tags & ~(LineClassifier.ERROR | LineClassifier.NOTIFY);
+            }
+
+            // Skip suppressed lines such as the SDL touch device warning for C++; they are never decoded
+            if ((tags & LineClassifier.SUPPRESSED) != 0) {
+                return;
+            }
+
+            // Store the line and queue it for the batched console/UI feed
+            pipeline.publish(line.toString());
+            if (sessionLog != null) {
+                synchronized (sessionLog) {
+                    sessionLog.append(line);
+                }
+            }
+            if (firstOutput != null && outputSeen.compareAndSet(false, true)) {
+                firstOutput.end();
+            }
+            if (!readyOnUrl && probeSettings == null && !ready.isDone() && settling.compareAndSet(false, true)) {
+                settle();
+            }
+
+            // Dev server URL (only the rules of URL-ready types produce this tag)
+            if ((tags & LineClassifier.URL) != 0) {
+                String url = LineClassifier.extractUrl(line);
+                if (url != null) {
+                    System.out.println("Found " + projectType + " URL: " + url);
+                    if (urlDetected != null) {
+                        urlDetected.end();
+                    }
+                    if (probeSettings == null) {
+                        pipeline.publishUrl(url);
+                        readyVia.putIfAbsent(projectType, "url in output");
+                        ready.complete(null);
+                    } else {
+                        // The browser button waits until the server answers
+                        ready.thenRun(() -> pipeline.publishUrl(url));
+                        URI target = probeSettings.target(url);
+                        if (target != null) {
+                            startProbe(target);
+                        }
+                    }
+                }
+            }
+
+            // Report error messages if they indicate a problem; only the first one raises the dialog
+            if ((tags & LineClassifier.NOTIFY) != 0 && hasError.compareAndSet(false, true)) {
+                pipeline.markError();
+            }
+        }
+    }
+
+    private boolean verifyScriptExists(String projectType, Path path) {
+        if (!Files.exists(path)) {
+            frontend.showError("Path Error", "Project path does not exist: " + path);
+            return false;
+        }
+
+        LaunchPlan plan = ProjectTypes.plan(projectType);
+        String windowsScript = plan.getWindowsScript();
+        String unixScript = plan.getUnixScript();
+        if (LaunchPlan.WINDOWS) {
+            if (!Files.exists(path.resolve(windowsScript))) {
+                // Check if the shell script exists as a fallback
+                if (plan.hasWslFallback() && Files.exists(path.resolve(unixScript))) {
+                    // Check if WSL is available before offering it as an option
+                    if (isWSLAvailable()) {
+                        return frontend.confirm(
+                            "Windows PowerShell script (" + windowsScript + ") not found, but " + unixScript + " exists.\n" +
+                            "Would you like to try using Windows Subsystem for Linux (WSL) to run it?",
+                            "Script Not Found");
+                    } else {
+                        frontend.showError("Script Not Found",
+                            "The PowerShell script (" + windowsScript + ") was not found for this project.\n" +
+                            "A shell script (" + unixScript + ") exists, but Windows Subsystem for Linux (WSL) is not available.\n\n" +
+                            "Please make sure you have the appropriate script files for your platform, or install WSL.");
+                        return false;
+                    }
+                } else {
+                    frontend.showError("Script Not Found",
+                        "The PowerShell script (" + windowsScript + ") was not found in " + path +
+                        "\n\nPlease make sure you have the appropriate script files for your platform.");
+                    return false;
+                }
+            }
+        } else if (!Files.exists(path.resolve(unixScript))) {
+            frontend.showError("Script Not Found",
+                "Script file " + unixScript + " not found in " + path +
+                "\n\nPlease make sure you have the appropriate script files for your platform.");
+            return false;
+        }
+
+        return true;
+    }
+}
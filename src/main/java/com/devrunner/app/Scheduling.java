@@ -0,0 +1,174 @@
+package com.devrunner.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.json.JSONObject;
+
+/**
+ * CPU affinity, nice level and I/O priority for a project, applied by
+ * starting its command through taskset, nice and ionice. All three are
+ * inherited across fork and exec, so the script, the compiler it runs and
+ * the program it finally starts all end up with the same settings. Only
+ * the nice level is available on macOS; Windows runs the command unchanged.
+ */
+final class Scheduling {
+    // taskset's list syntax: "3", "0-3" or "0,2,4-7"
+    private static final Pattern CPU_LIST = Pattern.compile("\\d+(-\\d+)?(,\\d+(-\\d+)?)*");
+    private static final boolean LINUX = System.getProperty("os.name").toLowerCase().contains("linux");
+
+    enum IoClass {
+        REALTIME(1),
+        BEST_EFFORT(2),
+        IDLE(3);
+
+        final int number;
+
+        IoClass(int number) {
+            this.number = number;
+        }
+
+        String configName() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    final String cpus;
+    final Integer nice;
+    final IoClass ioClass;
+    final int ioLevel;
+
+    private Scheduling(String cpus, Integer nice, IoClass ioClass, int ioLevel) {
+        this.cpus = cpus;
+        this.nice = nice;
+        this.ioClass = ioClass;
+        this.ioLevel = ioLevel;
+    }
+
+    /**
+     * Optional "scheduling" section, per project type:
+     * { "cpp": { "cpus": "0-3", "nice": -5, "io": "best-effort", "ioLevel": 0 } }
+     * Returns null when the type has no settings.
+     */
+    static Scheduling fromConfig(JSONObject config, String projectType) {
+        JSONObject scheduling = config != null ? config.optJSONObject("scheduling") : null;
+        JSONObject section = scheduling != null ? scheduling.optJSONObject(projectType) : null;
+        if (section == null || section.isEmpty()) {
+            return null;
+        }
+        String cpus = section.has("cpus") ? section.get("cpus").toString().replace(" ", "") : null;
+        if (cpus != null && !CPU_LIST.matcher(cpus).matches()) {
+            throw new IllegalArgumentException("scheduling." + projectType
+                + ".cpus must be a CPU list such as \"0-3\" or \"0,2,4-7\", not '" + cpus + "'");
+        }
+        if (cpus != null) {
+            // taskset rejects a range such as "3-1" only at launch, and cpuCount would go negative
+            for (String part : cpus.split(",")) {
+                int dash = part.indexOf('-');
+                if (dash >= 0 && Integer.parseInt(part.substring(0, dash)) > Integer.parseInt(part.substring(dash + 1))) {
+                    throw new IllegalArgumentException("scheduling." + projectType + ".cpus range '" + part
+                        + "' runs backwards; write it as low-high");
+                }
+            }
+        }
+        Integer nice = null;
+        if (section.has("nice")) {
+            nice = section.getInt("nice");
+            if (nice < -20 || nice > 19) {
+                throw new IllegalArgumentException("scheduling." + projectType + ".nice must be between -20 and 19");
+            }
+        }
+        IoClass ioClass = null;
+        if (section.has("io")) {
+            String io = section.getString("io");
+            try {
+                ioClass = IoClass.valueOf(io.toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown I/O class '" + io + "' for " + projectType
+                    + "; expected realtime, best-effort or idle");
+            }
+        }
+        int ioLevel = section.optInt("ioLevel", 4);
+        if (ioLevel < 0 || ioLevel > 7) {
+            throw new IllegalArgumentException("scheduling." + projectType + ".ioLevel must be between 0 and 7");
+        }
+        return new Scheduling(cpus, nice, ioClass, ioLevel);
+    }
+
+    /**
+     * The command prefixed with the tools that apply these settings. Settings
+     * this platform or toolchain cannot apply are left out and reported
+     * through skipped.
+     */
+    List<String> wrap(List<String> command, ToolchainIndex tools, List<String> skipped) {
+        List<String> wrapped = new ArrayList<>();
+        if (cpus != null) {
+            ToolchainIndex.Tool taskset = LINUX ? tools.find("taskset") : null;
+            if (taskset != null) {
+                wrapped.add(taskset.getPath());
+                wrapped.add("-c");
+                wrapped.add(cpus);
+            } else {
+                skipped.add("CPU affinity (needs taskset on Linux)");
+            }
+        }
+        if (nice != null) {
+            ToolchainIndex.Tool niceTool = LaunchPlan.WINDOWS ? null : tools.find("nice");
+            if (niceTool != null) {
+                // Raising priority needs privileges; nice then warns and runs the command anyway
+                wrapped.add(niceTool.getPath());
+                wrapped.add("-n");
+                wrapped.add(nice.toString());
+            } else {
+                skipped.add("nice level (needs nice)");
+            }
+        }
+        if (ioClass != null) {
+            ToolchainIndex.Tool ionice = LINUX ? tools.find("ionice") : null;
+            if (ionice != null) {
+                wrapped.add(ionice.getPath());
+                wrapped.add("-c");
+                wrapped.add(Integer.toString(ioClass.number));
+                if (ioClass != IoClass.IDLE) {
+                    wrapped.add("-n");
+                    wrapped.add(Integer.toString(ioLevel));
+                }
+                // The real-time class needs privileges; run at the normal priority rather than fail
+                wrapped.add("-t");
+            } else {
+                skipped.add("I/O priority (needs ionice on Linux)");
+            }
+        }
+        wrapped.addAll(command);
+        return wrapped;
+    }
+
+    // Number of CPUs in the affinity list, or 0 when the project is not pinned
+    int cpuCount() {
+        if (cpus == null) {
+            return 0;
+        }
+        int count = 0;
+        for (String part : cpus.split(",")) {
+            int dash = part.indexOf('-');
+            count += dash < 0 ? 1 : Integer.parseInt(part.substring(dash + 1)) - Integer.parseInt(part.substring(0, dash)) + 1;
+        }
+        return Math.max(1, count);
+    }
+
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        if (cpus != null) {
+            parts.add("CPUs " + cpus);
+        }
+        if (nice != null) {
+            parts.add("nice " + nice);
+        }
+        if (ioClass != null) {
+            parts.add("I/O " + ioClass.configName() + (ioClass != IoClass.IDLE ? " " + ioLevel : ""));
+        }
+        return String.join(", ", parts);
+    }
+}
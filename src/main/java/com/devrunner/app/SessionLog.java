@@ -0,0 +1,295 @@
+package com.devrunner.app;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.json.JSONObject;
+
+/**
+ * Append-only, block-compressed record of one run of a project's output,
+ * kept after the process exits so old runs can be searched with
+ * {@link SessionSearch}. Files live in &lt;dir&gt;/&lt;project&gt;/ and are named
+ * after the start time of the run.
+ *
+ * Lines are collected into blocks of about 64 KB, which are Deflate
+ * compressed and written with a header holding the block's first line
+ * number, line count, time range and a {@link TokenBloom} of its words, so
+ * a search reads only the headers of blocks that cannot match. A block is
+ * written when it is full, when it is older than a couple of seconds at the
+ * next line, and on close. Not thread-safe: one reader thread appends.
+ *
+ * <pre>
+ * file:  int FILE_MAGIC, short VERSION, long startMillis, short length + UTF-8 project
+ * block: int BLOCK_MAGIC, long firstLine, int lineCount, long firstTime, long lastTime,
+ *        int rawLength, int compressedLength, int crc32(compressed), short bloomWords,
+ *        long[bloomWords] bloom, byte[compressedLength] deflated
+ * raw:   per line: varint (time - firstTime), varint length, UTF-8 bytes
+ * </pre>
+ */
+public class SessionLog implements AutoCloseable {
+    static final int FILE_MAGIC = 0x44524C47; // "DRLG"
+    static final int BLOCK_MAGIC = 0x424C4B31; // "BLK1"
+    static final short VERSION = 1;
+    static final int BLOCK_HEADER_BYTES = 46;
+    static final String EXTENSION = ".dlog";
+    static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    public static final int DEFAULT_MAX_RUNS = 100;
+    private static final int BLOCK_BYTES = 64 * 1024;
+    private static final long BLOCK_MAX_AGE_MS = 2000;
+
+    /** Optional "sessions" section: { "enabled": true, "dir": "sessions", "maxRuns": 100 } */
+    public static final class Settings {
+        private final boolean enabled;
+        private final Path directory;
+        private final int maxRuns;
+
+        private Settings(boolean enabled, Path directory, int maxRuns) {
+            this.enabled = enabled;
+            this.directory = directory;
+            this.maxRuns = maxRuns;
+        }
+
+        public static Settings fromConfig(JSONObject config) {
+            JSONObject section = config != null ? config.optJSONObject("sessions") : null;
+            if (section == null) {
+                section = new JSONObject();
+            }
+            return new Settings(section.optBoolean("enabled", true),
+                Paths.get(section.optString("dir", "sessions")),
+                Math.max(1, section.optInt("maxRuns", DEFAULT_MAX_RUNS)));
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public int getMaxRuns() {
+            return maxRuns;
+        }
+    }
+
+    private final Path file;
+    // A plain stream rather than a FileChannel: the reader thread that writes the last block on close
+    // may be interrupted at shutdown, and an interrupt closes a channel and loses that block
+    private final FileOutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+    private final CRC32 crc = new CRC32();
+
+    private byte[] raw = new byte[BLOCK_BYTES + 1024];
+    private int rawLength;
+    private long[] tokens = new long[4096];
+    private int tokenCount;
+    private byte[] compressed = new byte[BLOCK_BYTES];
+    private long nextLine;
+    private long firstLine;
+    private long firstTime;
+    private long lastTime;
+    private boolean failed;
+
+    private SessionLog(Path file, String project, long startMillis) throws IOException {
+        this.file = file;
+        Files.createFile(file);
+        out = new FileOutputStream(file.toFile());
+        byte[] name = project.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(16 + name.length);
+        header.putInt(FILE_MAGIC).putShort(VERSION).putLong(startMillis).putShort((short) name.length).put(name);
+        header.flip();
+        writeFully(header);
+    }
+
+    /**
+     * Starts a new session file for the project and deletes the oldest ones
+     * beyond maxRuns.
+     */
+    public static SessionLog create(Path dir, String project, int maxRuns) throws IOException {
+        Path projectDir = dir.resolve(directoryName(project));
+        Files.createDirectories(projectDir);
+        long now = System.currentTimeMillis();
+        String stamp = LocalDateTime.now().format(FILE_NAME);
+        Path file = projectDir.resolve(stamp + EXTENSION);
+        // Two runs within the same millisecond get distinct names
+        for (int i = 1; Files.exists(file); i++) {
+            file = projectDir.resolve(stamp + "-" + i + EXTENSION);
+        }
+        SessionLog log = new SessionLog(file, project, now);
+        prune(projectDir, Math.max(1, maxRuns));
+        return log;
+    }
+
+    static String directoryName(String project) {
+        return project.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    // Session files of one project directory, oldest first
+    static List<Path> sessions(Path projectDir) throws IOException {
+        if (!Files.isDirectory(projectDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(projectDir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static void prune(Path projectDir, int maxRuns) throws IOException {
+        List<Path> files = sessions(projectDir);
+        for (int i = 0; i < files.size() - maxRuns; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void append(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        append(line, bytes, 0, bytes.length);
+    }
+
+    // Stores the line's bytes as read, without encoding it again
+    void append(OutputReader.Line line) {
+        append(line, line.array(), line.offset(), line.byteLength());
+    }
+
+    private void append(CharSequence line, byte[] bytes, int offset, int length) {
+        if (failed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (rawLength > 0 && now - firstTime > BLOCK_MAX_AGE_MS) {
+            flushBlock();
+        }
+        if (rawLength == 0) {
+            firstLine = nextLine;
+            firstTime = now;
+        }
+        lastTime = now;
+        nextLine++;
+
+        ensureRaw(rawLength + length + 20);
+        writeVarint(now - firstTime);
+        writeVarint(length);
+        System.arraycopy(bytes, offset, raw, rawLength, length);
+        rawLength += length;
+        TokenBloom.forEachToken(line, this::addToken);
+
+        if (rawLength >= BLOCK_BYTES) {
+            flushBlock();
+        }
+    }
+
+    private void addToken(long hash) {
+        if (tokenCount == tokens.length) {
+            tokens = Arrays.copyOf(tokens, tokenCount * 2);
+        }
+        tokens[tokenCount++] = hash;
+    }
+
+    private void ensureRaw(int capacity) {
+        if (capacity > raw.length) {
+            raw = Arrays.copyOf(raw, Math.max(capacity, raw.length * 2));
+        }
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            raw[rawLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        raw[rawLength++] = (byte) value;
+    }
+
+    private void flushBlock() {
+        if (rawLength == 0) {
+            return;
+        }
+        // Distinct tokens size the filter
+        Arrays.sort(tokens, 0, tokenCount);
+        int distinct = 0;
+        for (int i = 0; i < tokenCount; i++) {
+            if (i == 0 || tokens[i] != tokens[i - 1]) {
+                tokens[distinct++] = tokens[i];
+            }
+        }
+        TokenBloom bloom = new TokenBloom(distinct);
+        for (int i = 0; i < distinct; i++) {
+            bloom.add(tokens[i]);
+        }
+
+        deflater.reset();
+        deflater.setInput(raw, 0, rawLength);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+        crc.reset();
+        crc.update(compressed, 0, compressedLength);
+
+        long[] bits = bloom.bits();
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_HEADER_BYTES + bits.length * 8 + compressedLength);
+        block.putInt(BLOCK_MAGIC)
+            .putLong(firstLine)
+            .putInt((int) (nextLine - firstLine))
+            .putLong(firstTime)
+            .putLong(lastTime)
+            .putInt(rawLength)
+            .putInt(compressedLength)
+            .putInt((int) crc.getValue())
+            .putShort((short) bits.length);
+        for (long word : bits) {
+            block.putLong(word);
+        }
+        block.put(compressed, 0, compressedLength);
+        block.flip();
+        try {
+            writeFully(block);
+        } catch (IOException e) {
+            // Session history is optional; the live log keeps working
+            e.printStackTrace();
+            failed = true;
+        }
+        rawLength = 0;
+        tokenCount = 0;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        buffer.position(buffer.limit());
+    }
+
+    @Override
+    public void close() {
+        if (!failed) {
+            flushBlock();
+        }
+        deflater.end();
+        try {
+            out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
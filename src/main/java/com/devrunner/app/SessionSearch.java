@@ -0,0 +1,347 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Finds the lines of recorded {@link SessionLog} runs that contain every
+ * word of a query. Blocks whose time range ends before the cut-off, or whose
+ * Bloom filter rules out a word, are skipped after reading only their
+ * header, so only candidate blocks are decompressed. Runs are searched in
+ * parallel and reported newest first.
+ */
+public class SessionSearch {
+    public static final int DEFAULT_RUNS = 50;
+    public static final int DEFAULT_LIMIT = 1000;
+    private static final DateTimeFormatter TIME =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    public static final class Match {
+        public final String project;
+        public final String run;
+        public final long line;
+        public final long time;
+        public final String text;
+
+        Match(String project, String run, long line, long time, String text) {
+            this.project = project;
+            this.run = run;
+            this.line = line;
+            this.time = time;
+            this.text = text;
+        }
+
+        @Override
+        public String toString() {
+            return project + " " + run + ":" + (line + 1) + " " + TIME.format(Instant.ofEpochMilli(time)) + "  " + text;
+        }
+    }
+
+    public static final class Result {
+        public final List<Match> matches;
+        public final int runs;
+        public final long blocks;
+        public final long blocksRead;
+        public final boolean truncated;
+        public final long millis;
+
+        Result(List<Match> matches, int runs, long blocks, long blocksRead, boolean truncated, long millis) {
+            this.matches = matches;
+            this.runs = runs;
+            this.blocks = blocks;
+            this.blocksRead = blocksRead;
+            this.truncated = truncated;
+            this.millis = millis;
+        }
+
+        public String summary() {
+            return matches.size() + (truncated ? "+" : "") + " matching lines in " + runs + " runs ("
+                + blocksRead + " of " + blocks + " blocks read, " + millis + " ms)";
+        }
+    }
+
+    /**
+     * Runs a search given as command words:
+     * [--project p] [--runs n] [--since 30m|2h|7d] [--limit n] word...
+     */
+    public static Result search(List<String> args, SessionLog.Settings settings) throws IOException {
+        String project = null;
+        int runs = DEFAULT_RUNS;
+        long since = 0;
+        int limit = DEFAULT_LIMIT;
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            if (!arg.startsWith("--")) {
+                words.add(arg);
+                continue;
+            }
+            if (i + 1 == args.size()) {
+                throw new IllegalArgumentException(arg + " needs a value");
+            }
+            String value = args.get(++i);
+            switch (arg) {
+                case "--project":
+                    project = value;
+                    break;
+                case "--runs":
+                    runs = Math.max(1, parseCount(arg, value));
+                    break;
+                case "--limit":
+                    limit = Math.max(1, parseCount(arg, value));
+                    break;
+                case "--since":
+                    since = System.currentTimeMillis() - parseDuration(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown search option " + arg);
+            }
+        }
+        return search(settings.getDirectory(), project, String.join(" ", words), runs, since, limit);
+    }
+
+    private static int parseCount(String option, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " expects a number, not " + value);
+        }
+    }
+
+    // "90s", "30m", "2h" or "7d", in milliseconds
+    private static long parseDuration(String value) {
+        if (value.length() >= 2) {
+            try {
+                long amount = Long.parseLong(value.substring(0, value.length() - 1));
+                switch (value.charAt(value.length() - 1)) {
+                    case 's':
+                        return TimeUnit.SECONDS.toMillis(amount);
+                    case 'm':
+                        return TimeUnit.MINUTES.toMillis(amount);
+                    case 'h':
+                        return TimeUnit.HOURS.toMillis(amount);
+                    case 'd':
+                        return TimeUnit.DAYS.toMillis(amount);
+                    default:
+                        break;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+        }
+        throw new IllegalArgumentException("--since expects a duration such as 30m, 2h or 7d, not " + value);
+    }
+
+    /**
+     * Searches the newest lastRuns runs of one project, or of all projects
+     * when project is null, for lines written at or after sinceMillis.
+     */
+    public static Result search(Path dir, String project, String query, int lastRuns,
+                                long sinceMillis, int limit) throws IOException {
+        long start = System.nanoTime();
+        long[] hashes = TokenBloom.queryHashes(query);
+        if (hashes.length == 0) {
+            throw new IllegalArgumentException("the query has no words to search for");
+        }
+
+        List<Path> runs = new ArrayList<>();
+        if (project != null) {
+            runs.addAll(SessionLog.sessions(dir.resolve(SessionLog.directoryName(project))));
+        } else if (Files.isDirectory(dir)) {
+            try (Stream<Path> projectDirs = Files.list(dir)) {
+                for (Path projectDir : projectDirs.collect(Collectors.toList())) {
+                    runs.addAll(SessionLog.sessions(projectDir));
+                }
+            }
+        }
+        // File names are start times, so they sort across projects too
+        runs.sort(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed());
+        if (runs.size() > lastRuns) {
+            runs = runs.subList(0, lastRuns);
+        }
+
+        AtomicLong blocks = new AtomicLong();
+        AtomicLong blocksRead = new AtomicLong();
+        List<List<Match>> perRun = runs.parallelStream()
+            .map(run -> searchRun(run, hashes, sinceMillis, limit + 1, blocks, blocksRead))
+            .collect(Collectors.toList());
+
+        List<Match> matches = new ArrayList<>();
+        boolean truncated = false;
+        for (List<Match> runMatches : perRun) {
+            for (Match match : runMatches) {
+                if (matches.size() == limit) {
+                    truncated = true;
+                    break;
+                }
+                matches.add(match);
+            }
+        }
+        return new Result(matches, runs.size(), blocks.get(), blocksRead.get(), truncated,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static List<Match> searchRun(Path file, long[] hashes, long sinceMillis, int limit,
+                                         AtomicLong blocks, AtomicLong blocksRead) {
+        List<Match> matches = new ArrayList<>();
+        String run = file.getFileName().toString();
+        run = run.substring(0, run.length() - SessionLog.EXTENSION.length());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer fileHeader = ByteBuffer.allocate(16);
+            if (!readFully(channel, fileHeader, 0) || fileHeader.getInt() != SessionLog.FILE_MAGIC
+                    || fileHeader.getShort() != SessionLog.VERSION) {
+                return matches;
+            }
+            fileHeader.getLong();
+            int nameLength = fileHeader.getShort() & 0xFFFF;
+            ByteBuffer name = ByteBuffer.allocate(nameLength);
+            if (!readFully(channel, name, 16)) {
+                return matches;
+            }
+            String project = new String(name.array(), StandardCharsets.UTF_8);
+
+            ByteBuffer header = ByteBuffer.allocate(SessionLog.BLOCK_HEADER_BYTES);
+            Inflater inflater = new Inflater(true);
+            CRC32 crc = new CRC32();
+            boolean[] found = new boolean[hashes.length];
+            long position = 16 + nameLength;
+            try {
+                while (matches.size() < limit && readFully(channel, header, position)) {
+                    if (header.getInt() != SessionLog.BLOCK_MAGIC) {
+                        break;
+                    }
+                    long firstLine = header.getLong();
+                    int lineCount = header.getInt();
+                    long firstTime = header.getLong();
+                    long lastTime = header.getLong();
+                    int rawLength = header.getInt();
+                    int compressedLength = header.getInt();
+                    int checksum = header.getInt();
+                    int bloomWords = header.getShort() & 0xFFFF;
+                    long bloomStart = position + SessionLog.BLOCK_HEADER_BYTES;
+                    long dataStart = bloomStart + bloomWords * 8L;
+                    position = dataStart + compressedLength;
+                    if (position > size) {
+                        // The last block of a run that was killed mid-write
+                        break;
+                    }
+                    blocks.incrementAndGet();
+                    if (lastTime < sinceMillis) {
+                        continue;
+                    }
+                    ByteBuffer bloomBytes = ByteBuffer.allocate(bloomWords * 8);
+                    readFully(channel, bloomBytes, bloomStart);
+                    long[] bits = new long[bloomWords];
+                    bloomBytes.asLongBuffer().get(bits);
+                    if (!new TokenBloom(bits).mightContainAll(hashes)) {
+                        continue;
+                    }
+
+                    blocksRead.incrementAndGet();
+                    ByteBuffer data = ByteBuffer.allocate(compressedLength);
+                    readFully(channel, data, dataStart);
+                    crc.reset();
+                    crc.update(data.array(), 0, compressedLength);
+                    if ((int) crc.getValue() != checksum) {
+                        continue;
+                    }
+                    byte[] raw = new byte[rawLength];
+                    inflater.reset();
+                    inflater.setInput(data.array(), 0, compressedLength);
+                    if (inflater.inflate(raw) != rawLength) {
+                        continue;
+                    }
+                    scanBlock(raw, project, run, firstLine, lineCount, firstTime, sinceMillis,
+                        hashes, found, limit, matches);
+                }
+            } finally {
+                inflater.end();
+            }
+        } catch (IOException | DataFormatException e) {
+            // A damaged or vanished run should not spoil the rest of the search
+            System.err.println("Skipping " + file + ": " + e.getMessage());
+        }
+        return matches;
+    }
+
+    private static void scanBlock(byte[] raw, String project, String run, long firstLine, int lineCount,
+                                  long firstTime, long sinceMillis, long[] hashes, boolean[] found,
+                                  int limit, List<Match> matches) {
+        int offset = 0;
+        for (int i = 0; i < lineCount && matches.size() < limit; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = raw[offset++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            int length = 0;
+            shift = 0;
+            do {
+                b = raw[offset++];
+                length |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            long time = firstTime + delta;
+            if (time >= sinceMillis) {
+                String line = new String(raw, offset, length, StandardCharsets.UTF_8);
+                Arrays.fill(found, false);
+                TokenBloom.forEachToken(line, hash -> {
+                    for (int j = 0; j < hashes.length; j++) {
+                        if (hashes[j] == hash) {
+                            found[j] = true;
+                        }
+                    }
+                });
+                if (allFound(found)) {
+                    matches.add(new Match(project, run, firstLine + i, time, line));
+                }
+            }
+            offset += length;
+        }
+    }
+
+    private static boolean allFound(boolean[] found) {
+        for (boolean f : found) {
+            if (!f) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Fills the buffer from the given file position and flips it; false at end of file
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+}
@@ -0,0 +1,84 @@
+package com.devrunner.app;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Frame;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Table of launch phase percentiles from {@link LaunchTimings}, with a JSON
+ * export so bring-up times can be compared between machines or versions.
+ */
+public class TimingsDialog extends JDialog {
+    private static final String[] COLUMNS = {"Project", "Phase", "Count", "p50 (ms)", "p95 (ms)", "Max (ms)"};
+
+    private final LaunchTimings timings;
+    private final DefaultTableModel model = new DefaultTableModel(COLUMNS, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+
+    public TimingsDialog(Frame owner, LaunchTimings timings) {
+        super(owner, "Launch Timings", false);
+        this.timings = timings;
+
+        JTable table = new JTable(model);
+        table.setAutoCreateRowSorter(true);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh());
+        buttons.add(refreshButton);
+        JButton exportButton = new JButton("Export JSON...");
+        exportButton.addActionListener(e -> export());
+        buttons.add(exportButton);
+        add(buttons, BorderLayout.SOUTH);
+
+        setSize(640, 360);
+        setLocationRelativeTo(owner);
+        refresh();
+    }
+
+    public void refresh() {
+        model.setRowCount(0);
+        for (LaunchTimings.Summary summary : timings.summaries()) {
+            model.addRow(new Object[]{
+                summary.project, summary.phase, summary.count,
+                format(summary.p50), format(summary.p95), format(summary.max)
+            });
+        }
+    }
+
+    private static String format(double millis) {
+        return millis < 10 ? String.format("%.2f", millis) : String.format("%.0f", millis);
+    }
+
+    private void export() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("launch_timings.json"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            Files.writeString(chooser.getSelectedFile().toPath(), timings.toJson().toString(4));
+        } catch (IOException e) {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Could not export timings:\n" + e.getMessage(),
+                "Export Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.devrunner.app;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Bloom filter over the words of log lines, used by {@link SessionLog} so a
+ * search can skip blocks that cannot contain the query. A word is a run of
+ * letters and digits, compared case-insensitively; camelCase parts count as
+ * words too, so "exception" is found in "NullPointerException".
+ */
+final class TokenBloom {
+    private static final int HASHES = 7;
+    private static final int BITS_PER_TOKEN = 10;
+    private static final int MIN_BITS = 512;
+    private static final int MAX_BITS = 1 << 20;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] bits;
+
+    // Sized for about 1% false positives at the given number of distinct tokens
+    TokenBloom(int distinctTokens) {
+        int wanted = Math.min(MAX_BITS, Math.max(MIN_BITS, distinctTokens * BITS_PER_TOKEN));
+        int size = Integer.highestOneBit(wanted - 1) << 1;
+        bits = new long[size / 64];
+    }
+
+    TokenBloom(long[] bits) {
+        this.bits = bits;
+    }
+
+    long[] bits() {
+        return bits;
+    }
+
+    void add(long hash) {
+        int mask = bits.length * 64 - 1;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(long hash) {
+        int mask = bits.length * 64 - 1;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean mightContainAll(long[] hashes) {
+        for (long hash : hashes) {
+            if (!mightContain(hash)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Passes the hash of every word of the text to sink, without allocating:
+     * each whole word, plus its camelCase parts when it has more than one.
+     */
+    static void forEachToken(CharSequence text, LongConsumer sink) {
+        long word = FNV_OFFSET;
+        long part = FNV_OFFSET;
+        boolean inWord = false;
+        boolean split = false;
+        char previous = 0;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (inWord && Character.isUpperCase(c) && Character.isLowerCase(previous)) {
+                    // camelCase boundary: the part so far is a word of its own
+                    sink.accept(mix(part));
+                    part = FNV_OFFSET;
+                    split = true;
+                }
+                long lower = Character.toLowerCase(c);
+                word = (word ^ lower) * FNV_PRIME;
+                part = (part ^ lower) * FNV_PRIME;
+                inWord = true;
+            } else if (inWord) {
+                if (split) {
+                    sink.accept(mix(part));
+                }
+                sink.accept(mix(word));
+                word = FNV_OFFSET;
+                part = FNV_OFFSET;
+                inWord = false;
+                split = false;
+            }
+            previous = c;
+        }
+    }
+
+    // Hashes of the query's words; a line matches when it contains all of them
+    static long[] queryHashes(String query) {
+        Set<Long> hashes = new LinkedHashSet<>();
+        forEachToken(query, hashes::add);
+        return hashes.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // FNV-1a spreads poorly over the low bits the filter indexes with
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
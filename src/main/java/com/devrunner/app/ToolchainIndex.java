@@ -0,0 +1,302 @@
+package com.devrunner.app;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+
+/**
+ * Where the development tools live. The search path (the known install roots
+ * followed by PATH) is scanned once, in parallel, and the result is kept in an
+ * on-disk index. The index is keyed by the search path and the modification
+ * time of every directory on it, so it is only rebuilt after a tool has been
+ * installed, removed or moved; otherwise no helper process is started at all.
+ */
+public final class ToolchainIndex {
+    private static final int FORMAT = 1;
+    private static final long VERSION_TIMEOUT_SEC = 5;
+    private static final String[] COMMON_TOOLS = {
+        "java", "javac", "cmake", "gcc", "g++", "clang", "make", "python3", "python", "node", "npm",
+        // Apply the scheduling settings
+        "taskset", "nice", "ionice",
+        // Speed up C and C++ builds
+        "ccache", "ninja"
+    };
+    // The common tools plus whatever the registered project types depend on
+    private static final List<String> TOOLS = toolNames();
+
+    public static final class Tool {
+        private final String path;
+        private final String version;
+
+        Tool(String path, String version) {
+            this.path = path;
+            this.version = version;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        // First line of "<tool> --version", or null if it did not answer
+        public String getVersion() {
+            return version;
+        }
+    }
+
+    private final String searchPath;
+    private final String fingerprint;
+    private final Map<String, Tool> tools;
+
+    private ToolchainIndex(String searchPath, String fingerprint, Map<String, Tool> tools) {
+        this.searchPath = searchPath;
+        this.fingerprint = fingerprint;
+        this.tools = tools;
+    }
+
+    /**
+     * Returns the index stored in the file if it still matches the search
+     * path, or scans the search path and rewrites the file otherwise.
+     */
+    public static ToolchainIndex load(Path indexFile, ProcessSupervisor supervisor, Executor executor) {
+        String searchPath = buildSearchPath();
+        String fingerprint = fingerprint(searchPath);
+        ToolchainIndex cached = read(indexFile);
+        if (cached != null && cached.searchPath.equals(searchPath) && cached.fingerprint.equals(fingerprint)) {
+            return cached;
+        }
+        ToolchainIndex scanned = scan(searchPath, fingerprint, supervisor, executor);
+        scanned.write(indexFile);
+        return scanned;
+    }
+
+    // The PATH handed to launched projects: known install roots first, then the inherited PATH
+    public String getSearchPath() {
+        return searchPath;
+    }
+
+    public Tool find(String name) {
+        return tools.get(name);
+    }
+
+    public boolean has(String name) {
+        return tools.containsKey(name);
+    }
+
+    private static List<String> toolNames() {
+        Set<String> names = new LinkedHashSet<>(Arrays.asList(COMMON_TOOLS));
+        for (String projectType : ProjectTypes.ids()) {
+            ProjectTypes.plan(projectType).getDependencies().forEach(dependency -> names.add(dependency.getTool()));
+        }
+        return new ArrayList<>(names);
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name").toLowerCase().contains("windows");
+    }
+
+    private static String buildSearchPath() {
+        List<String> dirs = new ArrayList<>();
+        String existingPath;
+        if (isWindows()) {
+            String programFiles = System.getenv("ProgramFiles");
+            String programFilesX86 = System.getenv("ProgramFiles(x86)");
+            // MSYS2 first, as per the setup instructions
+            dirs.add("C:\\msys64\\mingw64\\bin");
+            dirs.add("C:\\msys64\\usr\\bin");
+            if (programFiles != null) {
+                dirs.add(programFiles + "\\Java\\jdk-17\\bin");
+                dirs.add(programFiles + "\\CMake\\bin");
+                dirs.add(programFiles + "\\nodejs");
+            }
+            if (programFilesX86 != null) {
+                dirs.add(programFilesX86 + "\\Java\\jdk-17\\bin");
+            }
+            existingPath = System.getenv("Path"); // Windows uses "Path" not "PATH"
+        } else {
+            dirs.add("/opt/homebrew/bin");
+            dirs.add("/opt/homebrew/sbin");
+            dirs.add("/usr/local/bin");
+            dirs.add("/usr/bin");
+            dirs.add("/bin");
+            existingPath = System.getenv("PATH");
+        }
+        if (existingPath != null && !existingPath.isEmpty()) {
+            dirs.add(existingPath);
+        }
+        return String.join(File.pathSeparator, dirs);
+    }
+
+    private static List<Path> searchDirs(String searchPath) {
+        Set<Path> dirs = new LinkedHashSet<>();
+        for (String entry : searchPath.split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                try {
+                    dirs.add(Paths.get(entry));
+                } catch (RuntimeException e) {
+                    // Malformed PATH entry; nothing can be found there anyway
+                }
+            }
+        }
+        return new ArrayList<>(dirs);
+    }
+
+    // A directory's mtime changes whenever an entry is added, removed or renamed in it;
+    // the tool names are included so a newly registered project type triggers a rescan
+    private static String fingerprint(String searchPath) {
+        StringBuilder fingerprint = new StringBuilder(String.join(",", TOOLS)).append('\n');
+        for (Path dir : searchDirs(searchPath)) {
+            long modified;
+            try {
+                modified = Files.getLastModifiedTime(dir).toMillis();
+            } catch (IOException e) {
+                modified = -1;
+            }
+            fingerprint.append(dir).append('=').append(modified).append('\n');
+        }
+        return fingerprint.toString();
+    }
+
+    private static ToolchainIndex scan(String searchPath, String fingerprint,
+                                       ProcessSupervisor supervisor, Executor executor) {
+        List<Path> dirs = searchDirs(searchPath);
+        List<String> extensions = executableExtensions();
+        Map<String, CompletableFuture<Tool>> lookups = new LinkedHashMap<>();
+        for (String name : TOOLS) {
+            lookups.put(name, CompletableFuture.supplyAsync(() -> {
+                Path executable = locate(name, dirs, extensions);
+                return executable == null ? null : new Tool(executable.toString(), probeVersion(executable, supervisor));
+            }, executor));
+        }
+
+        Map<String, Tool> tools = new LinkedHashMap<>();
+        lookups.forEach((name, lookup) -> {
+            Tool tool = lookup.join();
+            if (tool != null) {
+                tools.put(name, tool);
+            }
+        });
+        return new ToolchainIndex(searchPath, fingerprint, tools);
+    }
+
+    private static List<String> executableExtensions() {
+        List<String> extensions = new ArrayList<>();
+        if (isWindows()) {
+            String pathExt = System.getenv("PATHEXT");
+            for (String extension : (pathExt != null ? pathExt : ".COM;.EXE;.BAT;.CMD").split(";")) {
+                if (!extension.isEmpty()) {
+                    extensions.add(extension.toLowerCase());
+                }
+            }
+        } else {
+            extensions.add("");
+        }
+        return extensions;
+    }
+
+    private static Path locate(String name, List<Path> dirs, List<String> extensions) {
+        for (Path dir : dirs) {
+            for (String extension : extensions) {
+                Path candidate = dir.resolve(name + extension);
+                if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+                    return candidate.toAbsolutePath();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String probeVersion(Path executable, ProcessSupervisor supervisor) {
+        ProcessBuilder pb = new ProcessBuilder(executable.toString(), "--version");
+        pb.redirectErrorStream(true);
+        try {
+            Process process = supervisor.startHelper(executable.getFileName() + " --version", pb).getProcess();
+            // Version banners are tiny, so the pipe cannot fill up before the tool exits
+            if (!process.waitFor(VERSION_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                ProcessSupervisor.destroyTree(process.toHandle(), 1000);
+                return null;
+            }
+            String version = null;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while (version == null && (line = reader.readLine()) != null) {
+                    // The JVM announces JAVA_TOOL_OPTIONS before its own banner
+                    if (!line.isBlank() && !line.startsWith("Picked up ")) {
+                        version = line.trim();
+                    }
+                }
+            }
+            return version;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static ToolchainIndex read(Path indexFile) {
+        if (!Files.exists(indexFile)) {
+            return null;
+        }
+        try {
+            JSONObject json = new JSONObject(Files.readString(indexFile));
+            if (json.optInt("format") != FORMAT) {
+                return null;
+            }
+            Map<String, Tool> tools = new LinkedHashMap<>();
+            JSONObject toolsJson = json.getJSONObject("tools");
+            for (String name : toolsJson.keySet()) {
+                JSONObject tool = toolsJson.getJSONObject(name);
+                tools.put(name, new Tool(tool.getString("path"), tool.optString("version", null)));
+            }
+            return new ToolchainIndex(json.getString("searchPath"), json.getString("fingerprint"), tools);
+        } catch (IOException | RuntimeException e) {
+            // A damaged index is simply rebuilt
+            return null;
+        }
+    }
+
+    private void write(Path indexFile) {
+        JSONObject toolsJson = new JSONObject();
+        tools.forEach((name, tool) -> {
+            JSONObject entry = new JSONObject();
+            entry.put("path", tool.path);
+            if (tool.version != null) {
+                entry.put("version", tool.version);
+            }
+            toolsJson.put(name, entry);
+        });
+        JSONObject json = new JSONObject();
+        json.put("format", FORMAT);
+        json.put("searchPath", searchPath);
+        json.put("fingerprint", fingerprint);
+        json.put("tools", toolsJson);
+        try {
+            Path parent = indexFile.toAbsolutePath().getParent();
+            Path temp = Files.createTempFile(parent, "toolchain", ".tmp");
+            Files.writeString(temp, json.toString(4));
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package com.devrunner.app;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Runnable projects found under a workspace root. A folder is a project when
+ * it holds a type's run script together with one of the type's
+ * {@link ProjectType#markers()}; the folders below a project are its own
+ * business and are not searched. The tree is walked in parallel on the common
+ * ForkJoin pool, skipping the directories {@link ProjectWatcher} ignores, and
+ * the result is kept in an on-disk index so the last known projects are
+ * available at once on the next start while the walk runs in the background.
+ * Afterwards every walked directory is watched, and a change only rescans the
+ * folder it happened in.
+ */
+public final class WorkspaceIndex implements AutoCloseable {
+    private static final int FORMAT = 1;
+    private static final long DEBOUNCE_MS = 300;
+    private static final int DEFAULT_MAX_DEPTH = 4;
+    // Every run script and marker name; other files never change what a folder is
+    private static final Set<String> CLASSIFYING_NAMES = classifyingNames();
+
+    public static final class Settings {
+        private final boolean enabled;
+        private final Path root;
+        private final int maxDepth;
+
+        private Settings(boolean enabled, Path root, int maxDepth) {
+            this.enabled = enabled;
+            this.root = root;
+            this.maxDepth = maxDepth;
+        }
+
+        // Optional "discovery" section: { "enabled": true, "root": "..", "maxDepth": 4 }
+        public static Settings fromConfig(JSONObject config) {
+            JSONObject section = config != null ? config.optJSONObject("discovery") : null;
+            if (section == null) {
+                section = new JSONObject();
+            }
+            return new Settings(section.optBoolean("enabled", true),
+                Paths.get(section.optString("root", "..")).normalize(),
+                Math.max(0, section.optInt("maxDepth", DEFAULT_MAX_DEPTH)));
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public Path getRoot() {
+            return root;
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+    }
+
+    public static final class Project {
+        private final Path path;
+        private final String type;
+
+        Project(Path path, String type) {
+            this.path = path;
+            this.type = type;
+        }
+
+        // Relative to the working directory when the root is
+        public Path getPath() {
+            return path;
+        }
+
+        public String getType() {
+            return type;
+        }
+    }
+
+    private final Path indexFile;
+    private final Path root;
+    private final int maxDepth;
+    private final Consumer<List<Project>> onChange;
+    // Project folder to type, in path order; guarded by this
+    private final Map<Path, String> projects = new TreeMap<>();
+    private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> keysByDir = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * The callback receives every project, sorted by path, whenever the set
+     * changes; it runs on the calling thread for the cached index and on the
+     * index thread afterwards.
+     */
+    public WorkspaceIndex(Path indexFile, Settings settings, Consumer<List<Project>> onChange) {
+        this.indexFile = indexFile;
+        this.root = settings.getRoot();
+        this.maxDepth = settings.getMaxDepth();
+        this.onChange = onChange;
+    }
+
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        Map<Path, String> cached = read();
+        if (cached != null && !cached.isEmpty()) {
+            synchronized (this) {
+                projects.putAll(cached);
+            }
+            onChange.accept(snapshot());
+        }
+        thread = new Thread(this::run, "workspace-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Walks the tree once and returns what it found, without an index file or watching. */
+    public static List<Project> scan(Settings settings) {
+        WorkspaceIndex index = new WorkspaceIndex(null, settings, projects -> { });
+        index.rescan(Set.of(index.root), false);
+        return index.snapshot();
+    }
+
+    public synchronized List<Project> snapshot() {
+        List<Project> list = new ArrayList<>(projects.size());
+        projects.forEach((path, type) -> list.add(new Project(path, type)));
+        return list;
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        boolean changed = rescan(Set.of(root), true);
+        System.out.println("Found " + snapshot().size() + " projects under " + root.toAbsolutePath().normalize()
+            + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        publish(changed);
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<Path> dirty = new HashSet<>();
+                drain(key, dirty);
+                // Absorb the rest of the burst, such as a whole lesson folder being copied in
+                WatchKey more;
+                while ((more = watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    drain(more, dirty);
+                }
+                if (!dirty.isEmpty()) {
+                    publish(rescan(dirty, true));
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private void publish(boolean changed) {
+        if (!changed) {
+            return;
+        }
+        List<Project> list = snapshot();
+        write(list);
+        try {
+            onChange.accept(list);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Collects the folders whose subtree has to be looked at again
+    private void drain(WatchKey key, Set<Path> dirty) {
+        Path dir = keys.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                dirty.add(root);
+                continue;
+            }
+            Path child = dir.resolve((Path) event.context());
+            if (ProjectWatcher.isIgnoredDir(child)) {
+                continue;
+            }
+            // A script or marker coming or going may turn the folder into a project or back
+            boolean classifying = CLASSIFYING_NAMES.contains(child.getFileName().toString());
+            boolean isProject;
+            synchronized (this) {
+                isProject = projects.containsKey(dir);
+            }
+            if (isProject) {
+                // Only a project's own scripts and markers matter, not its sources
+                if (classifying) {
+                    dirty.add(dir);
+                }
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                // Forgets whatever was found in a deleted folder
+                dirty.add(child);
+            } else if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                if (depth(dir) < maxDepth) {
+                    dirty.add(child);
+                }
+            } else if (classifying) {
+                dirty.add(dir);
+            }
+        }
+        if (!key.reset()) {
+            keys.remove(key);
+            keysByDir.values().remove(key);
+        }
+    }
+
+    // Walks each folder again and replaces what was known below it; true if the projects changed
+    private boolean rescan(Set<Path> dirty, boolean watch) {
+        List<Path> starts = new ArrayList<>();
+        for (Path dir : dirty) {
+            // A folder inside another dirty folder is covered by that one
+            boolean covered = false;
+            for (Path other : dirty) {
+                if (!other.equals(dir) && dir.startsWith(other)) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) {
+                starts.add(dir);
+            }
+        }
+
+        boolean changed = false;
+        for (Path start : starts) {
+            Collection<Project> found = new ConcurrentLinkedQueue<>();
+            Collection<Path> walked = new ConcurrentLinkedQueue<>();
+            if (Files.isDirectory(start, LinkOption.NOFOLLOW_LINKS)) {
+                ForkJoinPool.commonPool().invoke(new ScanTask(start, depth(start), found, walked));
+            }
+            Map<Path, String> below = new TreeMap<>();
+            for (Project project : found) {
+                below.put(project.path, project.type);
+            }
+            synchronized (this) {
+                Map<Path, String> previous = new TreeMap<>();
+                for (Iterator<Map.Entry<Path, String>> it = projects.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<Path, String> entry = it.next();
+                    if (entry.getKey().startsWith(start)) {
+                        previous.put(entry.getKey(), entry.getValue());
+                        it.remove();
+                    }
+                }
+                projects.putAll(below);
+                changed |= !previous.equals(below);
+            }
+            if (watch) {
+                watch(start, walked);
+            }
+        }
+        return changed;
+    }
+
+    // Root is depth 0, its children depth 1
+    private int depth(Path dir) {
+        return dir.equals(root) ? 0 : root.relativize(dir).getNameCount();
+    }
+
+    // Registers the walked folders and drops the watches on folders below start that were not walked
+    private void watch(Path start, Collection<Path> walked) {
+        Set<Path> kept = new HashSet<>(walked);
+        for (Iterator<Map.Entry<Path, WatchKey>> it = keysByDir.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Path, WatchKey> entry = it.next();
+            if (entry.getKey().startsWith(start) && !kept.contains(entry.getKey())) {
+                entry.getValue().cancel();
+                keys.remove(entry.getValue());
+                it.remove();
+            }
+        }
+        for (Path dir : walked) {
+            try {
+                // Registering a watched folder again returns its existing key
+                WatchKey key = dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+                keys.put(key, dir);
+                keysByDir.put(dir, key);
+            } catch (IOException e) {
+                // Vanished or unreadable; the parent's events still cover it
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+        }
+    }
+
+    private static Set<String> classifyingNames() {
+        Set<String> names = new HashSet<>();
+        for (String id : ProjectTypes.ids()) {
+            LaunchPlan plan = ProjectTypes.plan(id);
+            names.add(plan.getUnixScript());
+            names.add(plan.getWindowsScript());
+            names.addAll(plan.getMarkers());
+        }
+        return names;
+    }
+
+    // The type whose script and marker both sit in the folder, first registered type first
+    static String classify(Set<String> fileNames) {
+        for (String id : ProjectTypes.ids()) {
+            LaunchPlan plan = ProjectTypes.plan(id);
+            if (!fileNames.contains(plan.getUnixScript()) && !fileNames.contains(plan.getWindowsScript())) {
+                continue;
+            }
+            for (String marker : plan.getMarkers()) {
+                if (fileNames.contains(marker)) {
+                    return id;
+                }
+            }
+        }
+        return null;
+    }
+
+    private final class ScanTask extends RecursiveAction {
+        private final Path dir;
+        private final int depth;
+        private final Collection<Project> found;
+        private final Collection<Path> walked;
+
+        ScanTask(Path dir, int depth, Collection<Project> found, Collection<Path> walked) {
+            this.dir = dir;
+            this.depth = depth;
+            this.found = found;
+            this.walked = walked;
+        }
+
+        @Override
+        protected void compute() {
+            // One listing per folder tells both its files and where to descend
+            Set<String> fileNames = new HashSet<>();
+            List<Path> subdirs = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path entry : stream) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        continue;
+                    }
+                    if (attributes.isDirectory()) {
+                        if (!ProjectWatcher.isIgnoredDir(entry)) {
+                            subdirs.add(entry);
+                        }
+                    } else {
+                        fileNames.add(entry.getFileName().toString());
+                    }
+                }
+            } catch (IOException e) {
+                // Unreadable or vanished folders hold no projects
+                return;
+            }
+            walked.add(dir);
+
+            String type = classify(fileNames);
+            if (type != null) {
+                found.add(new Project(dir, type));
+                return;
+            }
+            if (depth >= maxDepth) {
+                return;
+            }
+            List<ScanTask> tasks = new ArrayList<>(subdirs.size());
+            for (Path subdir : subdirs) {
+                tasks.add(new ScanTask(subdir, depth + 1, found, walked));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    // The projects stored for this root, or null if the index is missing, damaged or for another root
+    private Map<Path, String> read() {
+        if (indexFile == null || !Files.exists(indexFile)) {
+            return null;
+        }
+        try {
+            JSONObject json = new JSONObject(Files.readString(indexFile));
+            if (json.optInt("format") != FORMAT || !root.toString().equals(json.optString("root"))) {
+                return null;
+            }
+            Map<Path, String> stored = new TreeMap<>();
+            JSONArray list = json.getJSONArray("projects");
+            for (int i = 0; i < list.length(); i++) {
+                JSONObject project = list.getJSONObject(i);
+                // Types whose plugin has since been removed are dropped
+                if (ProjectTypes.plan(project.getString("type")) != null) {
+                    stored.put(Paths.get(project.getString("path")), project.getString("type"));
+                }
+            }
+            return stored;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void write(List<Project> list) {
+        if (indexFile == null) {
+            return;
+        }
+        JSONArray projectsJson = new JSONArray();
+        for (Project project : list) {
+            JSONObject entry = new JSONObject();
+            entry.put("path", project.path.toString());
+            entry.put("type", project.type);
+            projectsJson.put(entry);
+        }
+        JSONObject json = new JSONObject();
+        json.put("format", FORMAT);
+        json.put("root", root.toString());
+        json.put("projects", projectsJson);
+        try {
+            Path parent = indexFile.toAbsolutePath().getParent();
+            Path temp = Files.createTempFile(parent, "workspace", ".tmp");
+            Files.writeString(temp, json.toString(4));
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
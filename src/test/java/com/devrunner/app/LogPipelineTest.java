@@ -0,0 +1,43 @@
+package com.devrunner.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class LogPipelineTest {
+    @Test
+    void fullBatchDoesNotWaitForAPendingDelayedFlush() throws Exception {
+        LinkedBlockingQueue<LogPipeline.Batch> batches = new LinkedBlockingQueue<>();
+        // A flush interval far longer than the test may take
+        LogPipeline pipeline = new LogPipeline("test", new LogStore("test"), batches::add, Runnable::run,
+            60_000, 10, 100, false);
+
+        pipeline.publish("first");
+        for (int i = 2; i <= 10; i++) {
+            pipeline.publish("line " + i);
+        }
+
+        LogPipeline.Batch batch = batches.poll(5, TimeUnit.SECONDS);
+        assertEquals(10, batch.lines.size());
+        assertEquals(List.of("first", "line 2"), batch.lines.subList(0, 2));
+    }
+
+    @Test
+    void errorIsDeliveredWithoutWaitingForTheInterval() throws Exception {
+        LinkedBlockingQueue<LogPipeline.Batch> batches = new LinkedBlockingQueue<>();
+        LogPipeline pipeline = new LogPipeline("test", new LogStore("test"), batches::add, Runnable::run,
+            60_000, 10, 100, false);
+
+        pipeline.publish("Exception in thread main");
+        pipeline.markError();
+
+        LogPipeline.Batch batch = batches.poll(5, TimeUnit.SECONDS);
+        assertEquals(List.of("Exception in thread main"), batch.lines);
+        assertTrue(batch.error);
+    }
+}
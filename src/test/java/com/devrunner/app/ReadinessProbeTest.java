@@ -0,0 +1,164 @@
+package com.devrunner.app;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Probes against a server on a loopback port of this machine. */
+class ReadinessProbeTest {
+    private ServerSocket server;
+    private Thread acceptor;
+    // Connections the server has accepted so far
+    private final AtomicInteger accepted = new AtomicInteger();
+
+    @AfterEach
+    void closeServer() throws Exception {
+        if (server != null) {
+            server.close();
+            acceptor.join(1000);
+        }
+    }
+
+    @Test
+    void tcpProbeSucceedsOnceThePortAccepts() throws Exception {
+        int port = listen(null);
+
+        String result = ReadinessProbe.probe(settings("tcp", port, 5), target(port)).get(5, TimeUnit.SECONDS);
+
+        assertEquals("tcp connect to 127.0.0.1:" + port, result);
+    }
+
+    @Test
+    void httpProbeSucceedsOn2xx() throws Exception {
+        int port = listen(connection -> "204 No Content");
+
+        String result = ReadinessProbe.probe(settings("http", port, 5), target(port)).get(5, TimeUnit.SECONDS);
+
+        assertEquals("http 204 from " + target(port), result);
+    }
+
+    @Test
+    void httpProbeRetriesAfter5xx() throws Exception {
+        int port = listen(connection -> connection < 3 ? "503 Service Unavailable" : "200 OK");
+
+        String result = ReadinessProbe.probe(settings("http", port, 5), target(port)).get(5, TimeUnit.SECONDS);
+
+        assertEquals("http 200 from " + target(port), result);
+        assertEquals(3, accepted.get());
+    }
+
+    @Test
+    void httpProbeTimesOutWhileTheServerKeepsFailing() throws Exception {
+        int port = listen(connection -> "500 Internal Server Error");
+        CompletableFuture<String> probe = ReadinessProbe.probe(settings("http", port, 1), target(port));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> probe.get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertTrue(accepted.get() > 1, "the probe retried before giving up");
+    }
+
+    @Test
+    void tcpProbeTimesOutWhenNothingListens() throws Exception {
+        int port;
+        try (ServerSocket closed = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            port = closed.getLocalPort();
+        }
+        CompletableFuture<String> probe = ReadinessProbe.probe(settings("tcp", port, 1), target(port));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> probe.get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(TimeoutException.class, e.getCause());
+    }
+
+    @Test
+    void cancellingStopsTheProbe() throws Exception {
+        int port = listen(connection -> "503 Service Unavailable");
+        CompletableFuture<String> probe = ReadinessProbe.probe(settings("http", port, 60), target(port));
+        while (accepted.get() < 2) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(probe.cancel(false));
+        // An attempt already under way may still be accepted; none follows it
+        Thread.sleep(200);
+        int afterCancel = accepted.get();
+        Thread.sleep(500);
+
+        assertEquals(afterCancel, accepted.get());
+        assertTrue(probe.isCancelled());
+    }
+
+    // Readiness settings for a made-up project type, probed every 20 ms
+    private static ReadinessProbe.Settings settings(String probe, int port, long timeoutSec) {
+        JSONObject section = new JSONObject()
+            .put("probe", probe)
+            .put("host", "127.0.0.1")
+            .put("port", port)
+            .put("timeoutSec", timeoutSec)
+            .put("intervalMs", 20);
+        JSONObject config = new JSONObject().put("readiness", new JSONObject().put("test", section));
+        return ReadinessProbe.Settings.fromConfig(config, "test");
+    }
+
+    private static URI target(int port) {
+        return settings("tcp", port, 1).target(null);
+    }
+
+    /**
+     * Listens on a free loopback port. With a status, each connection reads
+     * the request head and gets that status line for its 1-based number;
+     * without one, connections are accepted and closed.
+     */
+    private int listen(IntFunction<String> status) throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    int connection = accepted.incrementAndGet();
+                    if (status != null) {
+                        respond(socket, status.apply(connection));
+                    }
+                } catch (IOException e) {
+                    // Closed by the test, or the probe hung up first
+                }
+            }
+        }, "readiness-probe-test-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return server.getLocalPort();
+    }
+
+    private static void respond(Socket socket, String status) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        String line;
+        while ((line = in.readLine()) != null && !line.isEmpty()) {
+            // Skip the request line and headers
+        }
+        OutputStream out = socket.getOutputStream();
+        out.write(("HTTP/1.1 " + status + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n")
+            .getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}